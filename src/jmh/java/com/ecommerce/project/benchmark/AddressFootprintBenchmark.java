@@ -0,0 +1,170 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.address.AddressCanonicalizer;
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.payload.AddressDTO;
+import com.ecommerce.project.service.AddressService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// a million users each entering one of 50k distinct addresses, with the casing and spacing of every entry varied.
+// deduplicated enters them through AddressService (one canonical row per distinct address, regions interned);
+// perEntryRows is the layout before deduplication, one row per entry as typed. Each run reports the address rows
+// and column bytes stored, and the heap retained by every address loaded back (used heap after a full GC with them
+// held, less the same once they are dropped); the time is that of entering the addresses. H2 runs as a TCP server,
+// so loaded rows own their strings as they would coming from a database server, rather than sharing H2's copies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Timeout(time = 2, timeUnit = TimeUnit.HOURS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AddressFootprintBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] CITIES = {"Bangalore", "Mumbai", "Pune", "Chennai", "Hyderabad", "Kolkata"};
+    private static final String[] STATES = {"Karnataka", "Maharashtra", "Maharashtra", "Tamil Nadu", "Telangana",
+            "West Bengal"};
+
+    @Param("1000000")
+    public int users;
+
+    @Param("50000")
+    public int distinctAddresses;
+
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private AddressService addressService;
+    private JdbcTemplate jdbcTemplate;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long storedRows;
+        public long storedBytes;
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:tcp://localhost:" + database.getPort()
+                                + "/mem:address-footprint;DB_CLOSE_DELAY=-1",
+                        // not an embedded URL, so the schema is not created by default
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.h2.console.enabled=false",
+                        "--project.inventory.reconcile-interval-ms=3600000");
+        addressService = context.getBean(AddressService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long userId = 1; userId <= users; userId++) {
+            batch.add(new Object[]{userId, "user" + userId, "user" + userId + "@example.com", "secret"});
+            if (batch.size() == SEED_BATCH_SIZE || userId == users) {
+                jdbcTemplate.batchUpdate("insert into users (user_id, username, email, password) values (?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.stop();
+    }
+
+    @Benchmark
+    public int deduplicated(Footprint footprint) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (long userId = 1; userId <= users; userId++) {
+            addressService.addUserAddress(userId, entry(random));
+        }
+        // region strings interned, as the @PostLoad hook does for entities
+        return measure(footprint, loadAddresses().stream().map(AddressCanonicalizer::intern).toList());
+    }
+
+    // the rows as they were stored before: the entry verbatim, one row each, linked to its user
+    @Benchmark
+    public int perEntryRows(Footprint footprint) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        List<Object[]> links = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long userId = 1; userId <= users; userId++) {
+            AddressDTO entry = entry(random);
+            rows.add(new Object[]{userId, entry.getStreet(), entry.getBuildingName(), entry.getCity(),
+                    entry.getState(), entry.getCountry(), entry.getPincode()});
+            links.add(new Object[]{userId, userId});
+            if (rows.size() == SEED_BATCH_SIZE || userId == users) {
+                jdbcTemplate.batchUpdate("insert into addresses (address_id, street, building_name, city, state, "
+                        + "country, pincode) values (?, ?, ?, ?, ?, ?, ?)", rows);
+                jdbcTemplate.batchUpdate("insert into user_address (user_id, address_id) values (?, ?)", links);
+                rows.clear();
+                links.clear();
+            }
+        }
+        return measure(footprint, loadAddresses());
+    }
+
+    // both layouts are read back the same way, so the retained heap differs only by rows and interning
+    private List<Address> loadAddresses() {
+        return jdbcTemplate.query("select street, building_name, city, state, country, pincode from addresses",
+                (resultSet, rowNumber) -> new Address(resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getString(4), resultSet.getString(5),
+                        resultSet.getString(6)));
+    }
+
+    private int measure(Footprint footprint, List<Address> loaded) {
+        long held = usedHeapAfterGc();
+        int size = loaded.size();
+        loaded = null;
+        footprint.retainedBytes = held - usedHeapAfterGc();
+        footprint.storedRows = jdbcTemplate.queryForObject("select count(*) from addresses", Long.class);
+        footprint.storedBytes = jdbcTemplate.queryForObject("select coalesce(sum(octet_length(street) "
+                + "+ octet_length(building_name) + octet_length(city) + octet_length(state) + octet_length(country) "
+                + "+ octet_length(pincode) + coalesce(octet_length(fingerprint), 0)), 0) from addresses", Long.class);
+        return size;
+    }
+
+    private AddressDTO entry(SplittableRandom random) {
+        int id = random.nextInt(distinctAddresses);
+        int region = id % CITIES.length;
+        return new AddressDTO(null, vary(random, id + " Market Street"), vary(random, "Tower " + id / 100),
+                vary(random, CITIES[region]), vary(random, STATES[region]), vary(random, "India"),
+                vary(random, String.valueOf(400_000 + id)));
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String vary(SplittableRandom random, String value) {
+        return switch (random.nextInt(4)) {
+            case 0 -> value.toUpperCase(Locale.ROOT);
+            case 1 -> " " + value.replace(" ", "  ") + " ";
+            case 2 -> value.toLowerCase(Locale.ROOT);
+            default -> value;
+        };
+    }
+}
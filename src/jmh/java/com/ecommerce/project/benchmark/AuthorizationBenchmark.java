@@ -0,0 +1,86 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.auth.AuthorityResolver;
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// an admin check for a random user: the cached role mask, the role projection query behind a cache miss, and
+// loading the user and walking its Role set (what a check on the entity costs)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+public class AuthorizationBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Param({"cached", "query", "entity"})
+    String check;
+
+    private ConfigurableApplicationContext context;
+    private AuthorityResolver authorityResolver;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:authorization;DB_CLOSE_DELAY=-1",
+                        "--spring.h2.console.enabled=false");
+        authorityResolver = context.getBean(AuthorityResolver.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        seedUsers(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isAdmin() {
+        long userId = 1 + ThreadLocalRandom.current().nextInt(USER_COUNT);
+        return switch (check) {
+            case "cached" -> authorityResolver.hasRole(userId, AppRole.ROLE_ADMIN);
+            case "query" -> (authorityResolver.loadRoleBits(userId) & (1 << AppRole.ROLE_ADMIN.ordinal())) != 0;
+            default -> transactionTemplate.execute(status -> userRepository.findById(userId).orElseThrow()
+                    .getRoles().stream().anyMatch(role -> role.getRollName() == AppRole.ROLE_ADMIN));
+        };
+    }
+
+    // every user has ROLE_USER, every tenth ROLE_ADMIN as well
+    private static void seedUsers(JdbcTemplate jdbcTemplate) {
+        for (AppRole role : AppRole.values()) {
+            jdbcTemplate.update("insert into roles (role_id, role_name) values (?, ?)", role.ordinal() + 1, role.name());
+        }
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> userRoles = new ArrayList<>();
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            users.add(new Object[]{userId, "user" + userId, "user" + userId + "@example.com", "secret"});
+            userRoles.add(new Object[]{userId, AppRole.ROLE_USER.ordinal() + 1});
+            if (userId % 10 == 0) {
+                userRoles.add(new Object[]{userId, AppRole.ROLE_ADMIN.ordinal() + 1});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_id, username, email, password) values (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into user_role (user_id, role_id) values (?, ?)", userRoles);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// synthetic catalog rows shared by the benchmarks
+final class BenchmarkData {
+
+    static final int CATEGORY_COUNT = 50;
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private static final String[] WORDS = {
+            "wireless", "phone", "laptop", "cotton", "shirt", "steel", "bottle", "organic", "coffee", "leather",
+            "wallet", "gaming", "mouse", "running", "shoes", "smart", "watch", "kitchen", "knife", "garden"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static String productName(long id) {
+        return WORDS[(int) (id % WORDS.length)] + " " + WORDS[(int) ((id / WORDS.length) % WORDS.length)] + " " + id;
+    }
+
+    static String description(long id) {
+        return "Item " + id + " made of " + WORDS[(int) ((id * 7) % WORDS.length)] + " for "
+                + WORDS[(int) ((id * 13) % WORDS.length)] + " lovers";
+    }
+
+    static double price(long id) {
+        return 5 + (id * 37 % 2000);
+    }
+
+    static double discount(long id) {
+        return id % 40;
+    }
+
+    static Category category(long categoryId) {
+        return new Category(categoryId, "Category " + categoryId, new ArrayList<>(), null);
+    }
+
+    static Product product(long id, Category category) {
+        double price = price(id);
+        double discount = discount(id);
+        return new Product(id, productName(id), description(id), "default.png", (int) (id % 500),
+                price, discount, price - discount * 0.01 * price, category, null, null);
+    }
+
+    static Page<Product> productPage(int pageSize) {
+        Category category = category(1);
+        List<Product> products = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            products.add(product(id, category));
+        }
+        return new PageImpl<>(products, PageRequest.of(0, pageSize), 100_000);
+    }
+
+    static Page<Category> categoryPage(int pageSize) {
+        List<Category> categories = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            categories.add(category(id));
+        }
+        return new PageImpl<>(categories, PageRequest.of(0, pageSize), CATEGORY_COUNT);
+    }
+
+    // inserts categories 1..CATEGORY_COUNT and products 1..catalogSize straight through JDBC
+    static void seedCatalog(JdbcTemplate jdbcTemplate, int catalogSize) {
+        List<Object[]> categories = new ArrayList<>();
+        for (long id = 1; id <= CATEGORY_COUNT; id++) {
+            categories.add(new Object[]{id, "Category " + id});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (category_id, category_name) values (?, ?)", categories);
+
+        String insertProduct = "insert into products (product_id, product_name, description, image, quantity, price, "
+                + "discount, special_price, category_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long id = 1; id <= catalogSize; id++) {
+            double price = price(id);
+            double discount = discount(id);
+            batch.add(new Object[]{id, productName(id), description(id), "default.png",
+                    (int) (id % 500), price, discount, price - discount * 0.01 * price,
+                    1 + id % CATEGORY_COUNT});
+            if (batch.size() == SEED_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(insertProduct, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(insertProduct, batch);
+        }
+    }
+}
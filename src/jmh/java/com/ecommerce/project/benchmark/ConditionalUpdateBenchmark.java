@@ -0,0 +1,101 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductPatch;
+import com.ecommerce.project.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 16 admins each editing the stock of their own product with If-Match. putAfterRead is the full-representation
+// cycle (read the product, send every field back); patch sends the one field with the version it last saw. The
+// statement pair isolates the UPDATE itself: every column, as written before @DynamicUpdate, against only the
+// changed column and the version
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(16)
+public class ConditionalUpdateBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+
+    private static final String FULL_ROW_UPDATE = "update products set category_id=?,description=?,discount=?,image=?,"
+            + "price=?,product_name=?,quantity=?,seller_id=?,special_price=?,version=? where product_id=? and version=?";
+    private static final String CHANGED_COLUMNS_UPDATE = "update products set quantity=?,version=? "
+            + "where product_id=? and version=?";
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicInteger nextProductId = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Writer {
+        long productId;
+        long version;
+        int quantity;
+
+        @Setup(Level.Trial)
+        public void setUp(ConditionalUpdateBenchmark benchmark) {
+            productId = 1 + benchmark.nextProductId.getAndIncrement() * 97L % CATALOG_SIZE;
+            version = benchmark.productService.getProductById(productId).getVersion();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:conditional-update;DB_CLOSE_DELAY=-1",
+                        "--spring.h2.console.enabled=false");
+        productService = context.getBean(ProductService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedCatalog(jdbcTemplate, CATALOG_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO putAfterRead(Writer writer) {
+        ProductDTO productDTO = productService.getProductById(writer.productId);
+        productDTO.setQuantity(++writer.quantity);
+        return productService.updateProduct(writer.productId, productDTO, productDTO.getVersion());
+    }
+
+    @Benchmark
+    public ProductDTO patch(Writer writer) {
+        ProductDTO productDTO = productService.patchProduct(writer.productId,
+                new ProductPatch(null, null, ++writer.quantity, null, null), writer.version);
+        writer.version = productDTO.getVersion();
+        return productDTO;
+    }
+
+    @Benchmark
+    public int fullRowStatement(Writer writer) {
+        long id = writer.productId;
+        double price = BenchmarkData.price(id);
+        double discount = BenchmarkData.discount(id);
+        return jdbcTemplate.update(FULL_ROW_UPDATE, 1 + id % BenchmarkData.CATEGORY_COUNT, BenchmarkData.description(id),
+                discount, "default.png", price, BenchmarkData.productName(id), ++writer.quantity, null,
+                price - discount * 0.01 * price, writer.version + 1, id, writer.version++);
+    }
+
+    @Benchmark
+    public int changedColumnsStatement(Writer writer) {
+        return jdbcTemplate.update(CHANGED_COLUMNS_UPDATE, ++writer.quantity, writer.version + 1,
+                writer.productId, writer.version++);
+    }
+}
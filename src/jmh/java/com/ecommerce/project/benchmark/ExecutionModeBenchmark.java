@@ -0,0 +1,82 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// HTTP reads under 64 concurrent clients with Tomcat on platform threads vs virtual threads; SampleTime reports
+// the p99. The virtual mode only differs from platform when the benchmark JVM is Java 21+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(64)
+public class ExecutionModeBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--spring.datasource.url=jdbc:h2:mem:execution-mode;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.h2.console.enabled=false",
+                        "--project.cache.products.maximum-size=0",
+                        "--project.cache.responses.cached-pages=0",
+                        "--project.admission.enabled=false");
+        BenchmarkData.seedCatalog(context.getBean(JdbcTemplate.class), CATALOG_SIZE);
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CategoryStatsIndex.class).rebuild();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/public";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int productPage() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(CATALOG_SIZE / PAGE_SIZE);
+        return get("/products?pageSize=" + PAGE_SIZE + "&pageNumber=" + page);
+    }
+
+    @Benchmark
+    public int categoryProductPage() throws IOException, InterruptedException {
+        long categoryId = 1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT);
+        return get("/categories/" + categoryId + "/products?pageSize=" + PAGE_SIZE);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
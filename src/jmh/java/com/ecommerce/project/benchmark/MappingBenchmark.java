@@ -0,0 +1,63 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.mapper.CategoryMapper;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+// entity -> DTO mapping and ProductResponse/CategoryResponse page assembly
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1", "50"})
+    int pageSize;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+    private Page<Product> productPage;
+    private Page<Category> categoryPage;
+
+    @Setup
+    public void setUp() {
+        productPage = BenchmarkData.productPage(pageSize);
+        categoryPage = BenchmarkData.categoryPage(pageSize);
+    }
+
+    @Benchmark
+    public void productToDTO(Blackhole blackhole) {
+        for (Product product : productPage.getContent()) {
+            blackhole.consume(productMapper.toDTO(product));
+        }
+    }
+
+    @Benchmark
+    public void productDTOToEntity(Blackhole blackhole) {
+        ProductDTO productDTO = productMapper.toDTO(productPage.getContent().get(0));
+        for (int i = 0; i < pageSize; i++) {
+            blackhole.consume(productMapper.toEntity(productDTO));
+        }
+    }
+
+    @Benchmark
+    public ProductResponse productResponseAssembly() {
+        return productMapper.toResponse(productPage);
+    }
+
+    @Benchmark
+    public CategoryResponse categoryResponseAssembly() {
+        return categoryMapper.toResponse(categoryPage);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// mixed HTTP reads and writes under 32 concurrent clients against a file-backed, PostgreSQL-mode H2, with the
+// default pool and JPA settings vs the prod profile; response caches are off so every request reaches the database
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(32)
+public class PersistenceProfileBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"default", "prod"})
+    String profile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Path.of("target", "benchmark-db", profile).toAbsolutePath();
+        FileSystemUtils.deleteRecursively(directory);
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.profiles.active=" + profile,
+                        "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("ecom")
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.h2.console.enabled=false",
+                        "--project.cache.products.maximum-size=0",
+                        "--project.cache.responses.cached-pages=0",
+                        "--project.admission.enabled=false");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedCatalog(jdbcTemplate, CATALOG_SIZE);
+        // the pooled optimizer hands out the 50 ids up to each sequence value
+        jdbcTemplate.execute("alter sequence products_seq restart with " + (CATALOG_SIZE + 50));
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CategoryStatsIndex.class).rebuild();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int productPage() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(CATALOG_SIZE / PAGE_SIZE);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/public/products?pageSize=" + PAGE_SIZE
+                + "&pageNumber=" + page)).GET());
+    }
+
+    @Benchmark
+    public int categoryProductPage() throws IOException, InterruptedException {
+        long categoryId = 1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/public/categories/" + categoryId
+                + "/products?pageSize=" + PAGE_SIZE + "&sortBy=price")).GET());
+    }
+
+    @Benchmark
+    public int addProduct() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long categoryId = 1 + random.nextInt(BenchmarkData.CATEGORY_COUNT);
+        String body = "{\"productName\":\"Load " + random.nextLong(Long.MAX_VALUE) + "\","
+                + "\"description\":\"Added under load\",\"quantity\":10,\"price\":250.0,\"discount\":10.0}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/admin/categories/" + categoryId + "/product"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
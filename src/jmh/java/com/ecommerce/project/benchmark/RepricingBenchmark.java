@@ -0,0 +1,84 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.payload.ProductPatch;
+import com.ecommerce.project.payload.RepricingJobDTO;
+import com.ecommerce.project.payload.RepricingRequest;
+import com.ecommerce.project.pricing.DiscountType;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.service.RepricingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// a sale on one category (2,000 of 100k products): one PATCH per product, as an admin client had to do before,
+// against a repricing job that updates the same products in chunkSize-row statements. Each invocation alternates
+// the discount so every run writes real changes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RepricingBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final long CATEGORY_ID = 1;
+
+    @Param({"100", "500", "2000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private RepricingService repricingService;
+    private List<Long> productIds;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:repricing;DB_CLOSE_DELAY=-1",
+                        "--spring.h2.console.enabled=false");
+        productService = context.getBean(ProductService.class);
+        repricingService = context.getBean(RepricingService.class);
+        BenchmarkData.seedCatalog(context.getBean(JdbcTemplate.class), CATALOG_SIZE);
+        productIds = context.getBean(ProductRepository.class).findProductIdsByCategoryId(CATEGORY_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int perProductPatch() {
+        double discount = nextDiscount();
+        for (Long productId : productIds) {
+            productService.patchProduct(productId, new ProductPatch(null, null, null, null, discount), null);
+        }
+        return productIds.size();
+    }
+
+    @Benchmark
+    public RepricingJobDTO repricingJob() throws InterruptedException {
+        RepricingJobDTO job = repricingService.submit(new RepricingRequest(DiscountType.PERCENTAGE, nextDiscount(),
+                List.of(CATEGORY_ID), null, chunkSize));
+        while (!job.getStatus().equals("COMPLETED") && !job.getStatus().equals("FAILED")) {
+            Thread.sleep(1);
+            job = repricingService.getJob(job.getJobId());
+        }
+        return job;
+    }
+
+    private double nextDiscount() {
+        return ++invocation % 2 == 0 ? 10 : 20;
+    }
+}
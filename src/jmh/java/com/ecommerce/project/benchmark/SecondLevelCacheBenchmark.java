@@ -0,0 +1,109 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// the lookups behind addProduct, createCategory and searchByCategory with the Hibernate second-level and query
+// caches on and off; the response caches are disabled. JDBC statements per call are printed at the end of each
+// trial
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SecondLevelCacheBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"true", "false"})
+    boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
+    private Statistics statistics;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.h2.console.enabled=false",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "--project.cache.products.maximum-size=0");
+        productService = context.getBean(ProductService.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        BenchmarkData.seedCatalog(context.getBean(JdbcTemplate.class), CATALOG_SIZE);
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CategoryStatsIndex.class).rebuild();
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("%n[secondLevelCache=%s] %.3f JDBC statements per call, %d second-level cache hits%n",
+                secondLevelCache, (double) statistics.getPrepareStatementCount() / Math.max(calls, 1),
+                statistics.getSecondLevelCacheHitCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // addProduct: the category by id, then the duplicate-name check
+    @Benchmark
+    public boolean addProductLookups() {
+        calls++;
+        long categoryId = 1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT);
+        Optional<Category> category = categoryRepository.findById(categoryId);
+        return productRepository.existsByCategoryAndProductName(category.orElseThrow(), "new product");
+    }
+
+    // createCategory/updateCategory: the duplicate-name check
+    @Benchmark
+    public Category categoryByName() {
+        calls++;
+        return categoryRepository.findByCategoryName("Category " + (1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT)));
+    }
+
+    @Benchmark
+    public ProductResponse searchByCategory() {
+        calls++;
+        int pages = CATALOG_SIZE / BenchmarkData.CATEGORY_COUNT / PAGE_SIZE;
+        long categoryId = 1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT);
+        return productService.searchByCategory(categoryId, ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE, "productId", "asc");
+    }
+}
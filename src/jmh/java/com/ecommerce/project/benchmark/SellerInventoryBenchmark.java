@@ -0,0 +1,126 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductPatch;
+import com.ecommerce.project.payload.SellerProductResponse;
+import com.ecommerce.project.payload.SellerStatsDTO;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// one seller owning a 100k-product catalog: a keyset page of the inventory at a random depth against an offset
+// page of Product entities with its count query, and the seller stats from CategoryStatsIndex against the
+// aggregate query they replaced. H2 would otherwise hand the query a cached result while the table is unchanged,
+// so result reuse is off, and each side is also measured with a writer restocking random products alongside.
+// (Walking User.products is not measured: initializing the set hashes each Product, whose Lombok hashCode reaches
+// back into the set and fails)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SellerInventoryBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final long SELLER_ID = 1;
+    private static final String STATS_QUERY = "select count(*), coalesce(sum(quantity), 0), "
+            + "coalesce(sum(quantity * special_price), 0.0), "
+            + "coalesce(sum(case when quantity is null or quantity <= 0 then 1 else 0 end), 0) "
+            + "from products where seller_id = ?";
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:seller-inventory;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+                        "--spring.h2.console.enabled=false");
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedCatalog(jdbcTemplate, CATALOG_SIZE);
+        jdbcTemplate.update("insert into users (user_id, username, email, password) values (?, 'seller', 'seller@example.com', 'secret')",
+                SELLER_ID);
+        jdbcTemplate.update("update products set seller_id = ?", SELLER_ID);
+        context.getBean(CategoryStatsIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SellerProductResponse keysetPage() {
+        long afterProductId = ThreadLocalRandom.current().nextInt(CATALOG_SIZE - PAGE_SIZE);
+        return productService.getSellerProducts(SELLER_ID, afterProductId, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SellerStatsDTO stats() {
+        return productService.getSellerStats(SELLER_ID);
+    }
+
+    @Benchmark
+    public Map<String, Object> statsQuery() {
+        return jdbcTemplate.queryForMap(STATS_QUERY, SELLER_ID);
+    }
+
+    @Benchmark
+    @Group("statsUnderWrites")
+    public SellerStatsDTO statsWhileRestocking() {
+        return stats();
+    }
+
+    @Benchmark
+    @Group("statsUnderWrites")
+    public ProductDTO restock() {
+        return restockRandomProduct();
+    }
+
+    @Benchmark
+    @Group("statsQueryUnderWrites")
+    public Map<String, Object> statsQueryWhileRestocking() {
+        return statsQuery();
+    }
+
+    @Benchmark
+    @Group("statsQueryUnderWrites")
+    public ProductDTO restockForQuery() {
+        return restockRandomProduct();
+    }
+
+    private ProductDTO restockRandomProduct() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return productService.patchProduct(1 + random.nextLong(CATALOG_SIZE),
+                new ProductPatch(null, null, random.nextInt(100), null, null), null);
+    }
+
+    @Benchmark
+    public Page<Product> offsetPage() {
+        int pageNumber = ThreadLocalRandom.current().nextInt(CATALOG_SIZE / PAGE_SIZE);
+        return productRepository.findAll((product, query, cb) -> cb.equal(product.get("user").get("userId"), SELLER_ID),
+                PageRequest.of(pageNumber, PAGE_SIZE, Sort.by("productId")));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.mapper.CategoryMapper;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of the response bodies, using the same builder defaults as the web layer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "50"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ProductResponse productResponse;
+    private CategoryResponse categoryResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productResponse = new ProductMapper().toResponse(BenchmarkData.productPage(pageSize));
+        categoryResponse = new CategoryMapper().toResponse(BenchmarkData.categoryPage(pageSize));
+    }
+
+    @Benchmark
+    public byte[] productResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productResponse);
+    }
+
+    @Benchmark
+    public byte[] categoryResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categoryResponse);
+    }
+}
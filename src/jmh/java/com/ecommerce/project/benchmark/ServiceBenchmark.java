@@ -0,0 +1,81 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.SbEcomApplication;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.ecommerce.project.service.CategoryService;
+import com.ecommerce.project.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// end-to-end service calls against an embedded H2 catalog; the product read cache is disabled
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CategoryService categoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SbEcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.h2.console.enabled=false",
+                        "--project.cache.products.maximum-size=0");
+        productService = context.getBean(ProductService.class);
+        categoryService = context.getBean(CategoryService.class);
+        BenchmarkData.seedCatalog(context.getBean(JdbcTemplate.class), catalogSize);
+        // rows were inserted behind the services' back, so the in-memory indexes have to catch up
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CategoryStatsIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse getAllProducts() {
+        int pages = catalogSize / PAGE_SIZE;
+        return productService.getAllProducts(ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE, "productId", "asc");
+    }
+
+    @Benchmark
+    public ProductResponse searchByCategory() {
+        int pages = catalogSize / BenchmarkData.CATEGORY_COUNT / PAGE_SIZE;
+        long categoryId = 1 + ThreadLocalRandom.current().nextInt(BenchmarkData.CATEGORY_COUNT);
+        return productService.searchByCategory(categoryId, ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE, "productId", "asc");
+    }
+
+    @Benchmark
+    public ProductResponse searchProductByKeyword() {
+        return productService.searchProductByKeyword("phone", 0, PAGE_SIZE, "productId", "asc");
+    }
+
+    @Benchmark
+    public CategoryResponse getAllCategories() {
+        return categoryService.getAllCategories(0, PAGE_SIZE, "categoryId", "asc", false);
+    }
+}
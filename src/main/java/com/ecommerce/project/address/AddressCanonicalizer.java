@@ -0,0 +1,72 @@
+package com.ecommerce.project.address;
+
+import com.ecommerce.project.model.Address;
+import com.github.benmanes.caffeine.cache.Interner;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// one canonical form per address: fields are trimmed with runs of whitespace collapsed, the pincode loses its
+// spaces and is upper-cased, and the fingerprint hashes the case-folded fields, so "12 Main  St" and
+// "12 main st" land on the same row. City, state and country repeat across most rows and are interned
+// (weakly, so values no longer referenced can still be collected)
+public final class AddressCanonicalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char SEPARATOR = '\u001f';
+    private static final Interner<String> REGIONS = Interner.newWeakInterner();
+
+    private AddressCanonicalizer() {
+    }
+
+    // normalizes the fields in place and sets the fingerprint
+    public static Address canonicalize(Address address) {
+        address.setStreet(clean(address.getStreet()));
+        address.setBuildingName(clean(address.getBuildingName()));
+        address.setCity(clean(address.getCity()));
+        address.setState(clean(address.getState()));
+        address.setCountry(clean(address.getCountry()));
+        address.setPincode(address.getPincode() == null
+                ? null
+                : WHITESPACE.matcher(address.getPincode()).replaceAll("").toUpperCase(Locale.ROOT));
+        address.setFingerprint(fingerprint(address));
+        return intern(address);
+    }
+
+    public static Address intern(Address address) {
+        address.setCity(intern(address.getCity()));
+        address.setState(intern(address.getState()));
+        address.setCountry(intern(address.getCountry()));
+        return address;
+    }
+
+    public static String intern(String value) {
+        return value == null ? null : REGIONS.intern(value);
+    }
+
+    // SHA-256 over the case-folded fields, base64url without padding (43 characters)
+    public static String fingerprint(Address address) {
+        String tuple = String.join(String.valueOf(SEPARATOR),
+                fold(address.getStreet()), fold(address.getBuildingName()), fold(address.getCity()),
+                fold(address.getState()), fold(address.getCountry()), fold(address.getPincode()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tuple.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String clean(String value) {
+        return value == null ? null : WHITESPACE.matcher(value.strip()).replaceAll(" ");
+    }
+
+    private static String fold(String value) {
+        return value == null ? "" : Normalizer.normalize(clean(value), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+}
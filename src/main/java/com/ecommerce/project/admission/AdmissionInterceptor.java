@@ -0,0 +1,122 @@
+package com.ecommerce.project.admission;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ServiceOverloadedException;
+import com.ecommerce.project.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.NumberUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+// admission for the public catalog routes, cheapest check first: oversized pages are refused with 400, a client
+// over its rate for the route with 429, and anything beyond the concurrency limit with 503. Rejections are
+// thrown before a concurrency slot is taken, and are counted per limiter and route
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionInterceptor.class.getName() + ".ADMITTED";
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final int maxPageSize;
+    private final String clientHeader;
+    private final int trustedHops;
+    private final long retryAfterSeconds;
+
+    public AdmissionInterceptor(RateLimiter rateLimiter,
+                                ConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${project.admission.max-page-size}") int maxPageSize,
+                                @Value("${project.admission.rate-limit.client-header}") String clientHeader,
+                                @Value("${project.admission.rate-limit.trusted-hops}") int trustedHops,
+                                @Value("${project.admission.retry-after-seconds}") long retryAfterSeconds) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+        this.maxPageSize = maxPageSize;
+        this.clientHeader = clientHeader;
+        this.trustedHops = Math.max(1, trustedHops);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // an async request is admitted once, on its first dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String route = route(request);
+        Integer pageSize = pageSize(request.getParameter("pageSize"));
+        if (pageSize != null && pageSize > maxPageSize) {
+            rejected("page-size", route);
+            throw new APIException("pageSize must not exceed " + maxPageSize);
+        }
+        long waitNanos = rateLimiter.tryAcquire(client(request), route);
+        if (waitNanos > 0) {
+            rejected("rate", route);
+            throw new TooManyRequestsException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            rejected("concurrency", route);
+            throw new ServiceOverloadedException(retryAfterSeconds);
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            concurrencyLimiter.release();
+        }
+    }
+
+    // parsed the way the controller will bind it (hex, zero padding and whitespace included), so no spelling of
+    // a large page gets past the check; values that do not bind are left to the 400 from the binder
+    private static Integer pageSize(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return NumberUtils.parseNumber(value, Integer.class);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // each proxy appends the address it received from, so only the entries our own trusted hops wrote are
+    // believed: the one trustedHops from the right. Anything to its left is whatever the caller chose to send
+    private String client(HttpServletRequest request) {
+        String forwarded = clientHeader.isEmpty() ? null : request.getHeader(clientHeader);
+        if (forwarded == null || forwarded.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        String[] hops = forwarded.split(",");
+        String client = hops[Math.max(0, hops.length - trustedHops)].trim();
+        return client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? "UNKNOWN" : pattern);
+    }
+
+    private void rejected(String limiter, String route) {
+        Counter.builder("ecom.admission.rejected")
+                .description("Public catalog requests turned away by admission control")
+                .tag("limiter", limiter)
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.project.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// load shedding for the public routes: a request is turned away while max-concurrent are already in flight,
+// or while max-pending-connections callers are already queued on the JDBC pool, so an overload is answered
+// with an immediate 503 instead of requests piling up behind the pool until they time out
+@Component
+public class ConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxConcurrent;
+    private final int maxPendingConnections;
+    private final HikariDataSource hikariDataSource;
+
+    public ConcurrencyLimiter(DataSource dataSource,
+                              MeterRegistry meterRegistry,
+                              @Value("${project.admission.max-concurrent-requests}") int maxConcurrent,
+                              @Value("${project.admission.max-pending-connections}") int maxPendingConnections) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxPendingConnections = maxPendingConnections;
+        this.hikariDataSource = dataSource instanceof HikariDataSource hikari ? hikari : null;
+        Gauge.builder("ecom.admission.in.flight", inFlight, AtomicInteger::get)
+                .description("Public catalog requests being served")
+                .register(meterRegistry);
+    }
+
+    // true when the request may proceed; it must then be released exactly once
+    public boolean tryAcquire() {
+        if (pendingConnections() >= maxPendingConnections) {
+            return false;
+        }
+        if (inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private int pendingConnections() {
+        HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.project.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// one token bucket per client and route. A bucket left idle for the burst window is full again, so it is
+// dropped after that long without access; maximum-tracked bounds the map under a flood of distinct clients
+// (the least recently used buckets go first, which at worst hands a client a fresh burst)
+@Component
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<Key, TokenBucket> buckets;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${project.admission.rate-limit.requests-per-second}") double requestsPerSecond,
+                       @Value("${project.admission.rate-limit.burst}") int burst,
+                       @Value("${project.admission.rate-limit.maximum-tracked}") long maximumTracked) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumTracked)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1))))
+                .recordStats()
+                .build();
+        Gauge.builder("ecom.admission.rate.buckets", buckets, Cache::estimatedSize)
+                .description("Client and route token buckets held in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("ecom.admission.rate.evictions", buckets, cache -> cache.stats().evictionCount())
+                .description("Token buckets dropped for idleness or to stay within maximum-tracked")
+                .register(meterRegistry);
+    }
+
+    // 0 when the request is admitted, otherwise the nanoseconds until the client may call the route again
+    public long tryAcquire(String client, String route) {
+        TokenBucket bucket = buckets.get(new Key(client, route), key -> new TokenBucket());
+        return bucket.tryAcquire(System.nanoTime(), intervalNanos, burstNanos);
+    }
+
+    private record Key(String client, String route) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.project.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// a token bucket kept as a single timestamp (the generic cell rate algorithm): the theoretical arrival time of
+// the next request at the sustained rate. A request is admitted while that time runs at most burstNanos ahead
+// of now, so an idle bucket refills to burst tokens without a refill task. Admission is one CAS, no lock
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    // 0 when a token was taken, otherwise the nanoseconds until one is available
+    long tryAcquire(long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.project.auth;
+
+import com.ecommerce.project.exceptions.ForbiddenException;
+import com.ecommerce.project.model.AppRole;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// admin routes need a caller holding ROLE_ADMIN. There is no authentication in front of the API yet, so the
+// caller is named by the X-User-Id header; whatever authenticates requests later only has to supply the id
+@Component
+public class AdminAuthorizationInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    @Autowired
+    private AuthorityResolver authorityResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId == null || !userId.matches("\\d{1,18}")) {
+            throw new ForbiddenException("Admin routes require the " + USER_ID_HEADER + " of an admin");
+        }
+        if (!authorityResolver.hasRole(Long.valueOf(userId), AppRole.ROLE_ADMIN)) {
+            throw new ForbiddenException("User " + userId + " is not an admin");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.project.auth;
+
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+// each user's roles as a bitmask, one bit per AppRole ordinal, so a check is a cache lookup and an AND. Masks
+// are loaded with a single projection query on a miss and dropped by RoleChangeListener when a user's roles
+// (or a role itself) change; the small Integer values are the JVM's cached boxes, so hits allocate nothing
+@Component
+public class AuthorityResolver {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> roleBits;
+
+    public AuthorityResolver(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${project.authorization.cache.maximum-size}") long maximumSize,
+                             @Value("${project.authorization.cache.ttl-seconds}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.roleBits = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, roleBits, "user-roles");
+    }
+
+    public boolean hasRole(Long userId, AppRole role) {
+        return (roleBits(userId) & bit(role)) != 0;
+    }
+
+    public Set<AppRole> roles(Long userId) {
+        int bits = roleBits(userId);
+        Set<AppRole> roles = EnumSet.noneOf(AppRole.class);
+        for (AppRole role : AppRole.values()) {
+            if ((bits & bit(role)) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    // unknown users resolve to no roles
+    public int roleBits(Long userId) {
+        return roleBits.get(userId, this::loadRoleBits);
+    }
+
+    // straight from the database, bypassing the cache
+    public int loadRoleBits(Long userId) {
+        return bits(userRepository.findRoleNamesByUserId(userId));
+    }
+
+    public void invalidate(Long userId) {
+        roleBits.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        roleBits.invalidateAll();
+    }
+
+    static int bits(Collection<AppRole> roles) {
+        int bits = 0;
+        for (AppRole role : roles) {
+            bits |= bit(role);
+        }
+        return bits;
+    }
+
+    private static int bit(AppRole role) {
+        return 1 << role.ordinal();
+    }
+}
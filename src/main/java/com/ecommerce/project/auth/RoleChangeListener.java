@@ -0,0 +1,75 @@
+package com.ecommerce.project.auth;
+
+import com.ecommerce.project.model.Role;
+import com.ecommerce.project.model.User;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+// keeps AuthorityResolver in step with the database: a change to a user's roles collection (or the user's
+// removal) drops that user's mask, a renamed or removed role drops them all. Eviction waits for the
+// transaction to finish, so a check running in between cannot cache the roles as they were before the change
+public class RoleChangeListener implements PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+
+    private final AuthorityResolver authorityResolver;
+
+    public RoleChangeListener(AuthorityResolver authorityResolver) {
+        this.authorityResolver = authorityResolver;
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        rolesChanged(event);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Role) {
+            afterCompletion(event.getSession(), null);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Role) {
+            afterCompletion(event.getSession(), null);
+        } else if (event.getEntity() instanceof User user) {
+            afterCompletion(event.getSession(), user.getUserId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void rolesChanged(AbstractCollectionEvent event) {
+        if (USER_ROLES.equals(event.getCollection().getRole())
+                && event.getAffectedOwnerIdOrNull() instanceof Long userId) {
+            afterCompletion(event.getSession(), userId);
+        }
+    }
+
+    // null evicts every user
+    private void afterCompletion(EventSource session, Long userId) {
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            if (userId == null) {
+                authorityResolver.invalidateAll();
+            } else {
+                authorityResolver.invalidate(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.project.auth;
+
+import com.ecommerce.project.exceptions.ForbiddenException;
+import com.ecommerce.project.model.AppRole;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// per-user routes (/api/users/{userId}/**) are only open to that user and to admins; the caller is named by the
+// same X-User-Id header as on the admin routes
+@Component
+public class UserOwnershipInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private AuthorityResolver authorityResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String callerId = request.getHeader(AdminAuthorizationInterceptor.USER_ID_HEADER);
+        if (callerId == null || !callerId.matches("\\d{1,18}")) {
+            throw new ForbiddenException("User routes require the " + AdminAuthorizationInterceptor.USER_ID_HEADER
+                    + " of the user");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = pathVariables == null ? null : pathVariables.get("userId");
+        if (callerId.equals(userId) || authorityResolver.hasRole(Long.valueOf(callerId), AppRole.ROLE_ADMIN)) {
+            return true;
+        }
+        throw new ForbiddenException("User " + callerId + " may not access user " + userId);
+    }
+}
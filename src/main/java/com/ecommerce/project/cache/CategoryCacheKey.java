@@ -0,0 +1,14 @@
+package com.ecommerce.project.cache;
+
+// one page of the category listing
+public record CategoryCacheKey(Integer pageNumber,
+                               Integer pageSize,
+                               String sortBy,
+                               String sortOrder,
+                               boolean includeStats) {
+
+    public static CategoryCacheKey of(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean includeStats) {
+        return new CategoryCacheKey(pageNumber, pageSize, sortBy,
+                sortOrder.equalsIgnoreCase("asc") ? "asc" : "desc", includeStats);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.project.cache;
+
+// one cached page of products: the query it came from plus the paging/sorting parameters
+public record ProductCacheKey(Scope scope,
+                              Long categoryId,
+                              String keyword,
+                              Integer pageNumber,
+                              Integer pageSize,
+                              String sortBy,
+                              String sortOrder) {
+
+    public enum Scope {
+        ALL,
+        CATEGORY,
+        KEYWORD
+    }
+
+    public static ProductCacheKey all(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return new ProductCacheKey(Scope.ALL, null, null, pageNumber, pageSize, sortBy, direction(sortOrder));
+    }
+
+    public static ProductCacheKey category(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return new ProductCacheKey(Scope.CATEGORY, categoryId, null, pageNumber, pageSize, sortBy, direction(sortOrder));
+    }
+
+    public static ProductCacheKey keyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return new ProductCacheKey(Scope.KEYWORD, null, keyword, pageNumber, pageSize, sortBy, direction(sortOrder));
+    }
+
+    // the services treat anything other than "asc" as descending
+    private static String direction(String sortOrder) {
+        return sortOrder.equalsIgnoreCase("asc") ? "asc" : "desc";
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.payload.CacheStatsDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Component
+public class ProductResponseCache {
+
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
+    private final AsyncCache<ProductCacheKey, ProductResponse> asyncCache;
+    private final Map<ProductCacheKey, CompletableFuture<ProductResponse>> cache;
+
+    public ProductResponseCache(@Value("${project.cache.products.maximum-size}") long maximumSize,
+                                @Value("${project.cache.products.ttl-seconds}") long ttlSeconds) {
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        this.cache = asyncCache.asMap();
+    }
+
+    // the loader runs on the calling thread outside any map lock (a JDBC call under the map's bin monitor would
+    // pin a virtual thread); concurrent misses for the same key wait on the first caller's future.
+    // exceptions thrown by the loader (e.g. empty pages) are propagated and nothing is cached: the future is
+    // completed with null, which drops the entry, and any waiters run the loader themselves
+    public ProductResponse get(ProductCacheKey key, Supplier<ProductResponse> loader) {
+        CompletableFuture<ProductResponse> pending = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> cached = asyncCache.get(key, (k, executor) -> pending);
+        if (cached != pending) {
+            ProductResponse productResponse = cached.join();
+            return productResponse != null ? productResponse : loader.get();
+        }
+        try {
+            ProductResponse productResponse = loader.get();
+            pending.complete(productResponse);
+            return productResponse;
+        } catch (RuntimeException e) {
+            pending.complete(null);
+            throw e;
+        }
+    }
+
+    // a product was written: drop the listing pages, the pages of its category and the keyword pages
+    // that its searchable text (before or after the write) can appear in
+    public void invalidateProduct(Long categoryId, String... documents) {
+        invalidate(key -> switch (key.scope()) {
+            case ALL -> true;
+            case CATEGORY -> key.categoryId().equals(categoryId);
+            case KEYWORD -> matchesAny(key.keyword(), documents);
+        });
+    }
+
+    // a category was removed together with its products
+    public void invalidateCategory(Long categoryId) {
+        invalidate(key -> key.scope() != ProductCacheKey.Scope.CATEGORY || key.categoryId().equals(categoryId));
+    }
+
+    public void invalidateAll() {
+        invalidate(key -> true);
+    }
+
+    // the serialized bodies of the same pages go too, as do category pages carrying stats, which every
+    // product write can change
+    private void invalidate(Predicate<ProductCacheKey> keys) {
+        cache.keySet().removeIf(keys);
+        serializedResponseCache.invalidate(key -> key instanceof ProductCacheKey productCacheKey
+                ? keys.test(productCacheKey)
+                : key instanceof CategoryCacheKey categoryCacheKey && categoryCacheKey.includeStats());
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = asyncCache.synchronous().stats();
+        return new CacheStatsDTO(asyncCache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private static boolean matchesAny(String keyword, String... documents) {
+        for (String document : documents) {
+            if (ProductSearchIndex.matches(keyword, document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,209 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.http.AcceptEncoding;
+import com.ecommerce.project.metrics.ResponseRowsAdvice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// JSON bodies of the first pages of the public listings, serialized (and gzipped) once and written as bytes.
+// Entries dropped by a catalog write are rebuilt on a background thread, so the next reader usually finds
+// the page warm again. Callers invalidate after their transaction has committed.
+@Component
+public class SerializedResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SerializedResponseCache.class);
+    private static final int REFRESH_QUEUE_CAPACITY = 1_000;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int cachedPages;
+    private final int gzipMinBytes;
+    private final Cache<Object, Entry> cache;
+    private final ThreadPoolExecutor refreshExecutor;
+    // keys with a refresh queued, so a burst of writes rebuilds each page once
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    // loads in progress; an invalidation matching a load's key marks it stale, and a body loaded across that
+    // invalidation is not kept. Loads of keys the invalidation did not match are unaffected
+    private final Set<Load> loads = ConcurrentHashMap.newKeySet();
+
+    public SerializedResponseCache(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${project.cache.responses.cached-pages}") int cachedPages,
+                                   @Value("${project.cache.responses.maximum-bytes}") long maximumBytes,
+                                   @Value("${project.cache.responses.ttl-seconds}") long ttlSeconds,
+                                   @Value("${project.cache.responses.gzip-min-bytes}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.cachedPages = cachedPages;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Object key, Entry entry) -> entry.response().weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "response-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // the body for key, from the cache when pageNumber is one of the cached pages; answers If-None-Match with
+    // 304 (returning null, the response is already complete) and serves the gzipped bytes when accepted
+    public ResponseEntity<byte[]> respond(Object key, int pageNumber, Supplier<?> loader, ServletWebRequest request) {
+        SerializedResponse response = pageNumber < cachedPages ? get(key, loader) : serialize(loader.get());
+        boolean gzip = response.gzipBody() != null && AcceptEncoding.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String eTag = gzip ? response.eTag() + "-gzip" : response.eTag();
+        request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ServletWebRequest.SCOPE_REQUEST);
+        ResponseRowsAdvice.record(meterRegistry, pattern == null ? "UNKNOWN" : pattern.toString(), response.rows());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzipBody());
+        }
+        return builder.body(response.body());
+    }
+
+    public void invalidate(Predicate<Object> keys) {
+        for (Load load : loads) {
+            if (keys.test(load.key)) {
+                load.stale = true;
+            }
+        }
+        for (Map.Entry<Object, Entry> cached : cache.asMap().entrySet()) {
+            if (keys.test(cached.getKey()) && cache.asMap().remove(cached.getKey(), cached.getValue())) {
+                refresh(cached.getKey(), cached.getValue().loader());
+            }
+        }
+    }
+
+    public void invalidateCategories() {
+        invalidate(key -> key instanceof CategoryCacheKey);
+    }
+
+    private SerializedResponse get(Object key, Supplier<?> loader) {
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.response();
+        }
+        Load load = new Load(key);
+        loads.add(load);
+        try {
+            Entry entry = new Entry(serialize(loader.get()), loader);
+            cache.put(key, entry);
+            // checked after the put: an invalidation that marks the load later than this also finds the entry
+            if (load.stale) {
+                cache.asMap().remove(key, entry);
+            }
+            return entry.response();
+        } finally {
+            loads.remove(load);
+        }
+    }
+
+    private void refresh(Object key, Supplier<?> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            refreshing.remove(key);
+            try {
+                get(key, loader);
+            } catch (RuntimeException e) {
+                // e.g. the page is empty now; the next request gets the error from the service
+                log.debug("Could not refresh cached response {}", key, e);
+            }
+        });
+    }
+
+    private SerializedResponse serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            List<?> rows = ResponseRowsAdvice.rows(value);
+            return new SerializedResponse(body, body.length >= gzipMinBytes ? gzip(body) : null, eTag(body),
+                    rows == null ? 0 : rows.size());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(buffer)) {
+            gzipOutputStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // derived from the bytes, so a page rebuilt with the same content keeps its ETag
+    private static String eTag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SerializedResponse(byte[] body, byte[] gzipBody, String eTag, int rows) {
+
+        int weight() {
+            return body.length + (gzipBody == null ? 0 : gzipBody.length);
+        }
+    }
+
+    private record Entry(SerializedResponse response, Supplier<?> loader) {
+    }
+
+    // compared by identity: concurrent loads of one key are tracked separately
+    private static final class Load {
+        private final Object key;
+        private volatile boolean stale;
+
+        private Load(Object key) {
+            this.key = key;
+        }
+    }
+}
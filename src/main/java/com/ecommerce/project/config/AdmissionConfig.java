@@ -0,0 +1,24 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.admission.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// page-size policy, per-client rate limits and load shedding on the public product, category and seller routes;
+// switched off with project.admission.enabled=false (the load benchmarks drive it from a single client)
+@Configuration
+@ConditionalOnProperty(name = "project.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/public/products/**", "/api/public/categories/**", "/api/public/sellers/**");
+    }
+}
@@ -5,5 +5,6 @@ public class AppConstants {
     public static final String PAGE_SIZE = "50";
     public static final String SORT_CATEGORIES_BY = "categoryId";
     public static final String SORT_PRODUCTS_BY = "productId";
+    public static final String SORT_BY_RELEVANCE = "relevance";
     public static final String SORT_DIR = "asc";
 }
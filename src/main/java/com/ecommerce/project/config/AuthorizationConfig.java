@@ -0,0 +1,53 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.auth.AdminAuthorizationInterceptor;
+import com.ecommerce.project.auth.AuthorityResolver;
+import com.ecommerce.project.auth.RoleChangeListener;
+import com.ecommerce.project.auth.UserOwnershipInterceptor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// role checks on /api/admin/**, and owner-or-admin checks on /api/users/{userId}/**, when
+// project.authorization.enabled=true; the role cache is kept current either way
+@Configuration
+public class AuthorizationConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdminAuthorizationInterceptor adminAuthorizationInterceptor;
+
+    @Autowired
+    private UserOwnershipInterceptor userOwnershipInterceptor;
+
+    @Value("${project.authorization.enabled}")
+    private boolean enabled;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(adminAuthorizationInterceptor).addPathPatterns("/api/admin/**");
+            registry.addInterceptor(userOwnershipInterceptor).addPathPatterns("/api/users/{userId}/**");
+        }
+    }
+
+    @Bean
+    public RoleChangeListener roleChangeListener(EntityManagerFactory entityManagerFactory,
+                                                 AuthorityResolver authorityResolver) {
+        RoleChangeListener listener = new RoleChangeListener(authorityResolver);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+}
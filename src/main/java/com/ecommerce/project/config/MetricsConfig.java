@@ -0,0 +1,60 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.metrics.ResponseBytesFilter;
+import com.ecommerce.project.metrics.TimedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// request, repository, Hikari and JVM metrics come from Spring Boot's auto-configuration (see management.* in
+// application.properties); these beans add serialization time, response sizes and second-level cache statistics on top
+@Configuration
+public class MetricsConfig {
+
+    // replaces Spring Boot's default Jackson converter
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                            MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseBytesFilter> responseBytesFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseBytesFilter> registration =
+                new FilterRegistrationBean<>(new ResponseBytesFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // per-region second-level cache hits, misses and puts (needs hibernate.generate_statistics)
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+                FunctionCounter.builder("hibernate.second.level.cache.requests", regionStatistics, CacheRegionStatistics::getHitCount)
+                        .description("Second-level cache lookups")
+                        .tags("region", region, "result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("hibernate.second.level.cache.requests", regionStatistics, CacheRegionStatistics::getMissCount)
+                        .description("Second-level cache lookups")
+                        .tags("region", region, "result", "miss")
+                        .register(registry);
+                FunctionCounter.builder("hibernate.second.level.cache.puts", regionStatistics, CacheRegionStatistics::getPutCount)
+                        .description("Entries put into the second-level cache")
+                        .tags("region", region)
+                        .register(registry);
+            }
+        };
+    }
+}
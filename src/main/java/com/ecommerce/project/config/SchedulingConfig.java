@@ -0,0 +1,10 @@
+package com.ecommerce.project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// stock reconciliation and reservation expiry
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
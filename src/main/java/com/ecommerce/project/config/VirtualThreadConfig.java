@@ -0,0 +1,34 @@
+package com.ecommerce.project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// active with spring.threads.virtual.enabled=true on a Java 21+ runtime; Spring Boot then runs Tomcat requests
+// and @Async work on virtual threads. Request concurrency is no longer capped by the Tomcat pool, so the JDBC
+// pool becomes the throttle: it is fixed-size and callers queue for a connection instead of failing fast.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor virtualThreadHikariSizing(
+            @Value("${project.execution.virtual.jdbc-pool-size}") int poolSize,
+            @Value("${project.execution.virtual.jdbc-connection-timeout-ms}") long connectionTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    dataSource.setConnectionTimeout(connectionTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.AddressDTO;
+import com.ecommerce.project.service.AddressService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class AddressController {
+
+    @Autowired
+    private AddressService addressService;
+
+    @PostMapping("/users/{userId}/addresses")
+    public ResponseEntity<AddressDTO> addUserAddress(@PathVariable Long userId,
+                                                     @Valid @RequestBody AddressDTO addressDTO) {
+        AddressDTO savedAddressDTO = addressService.addUserAddress(userId, addressDTO);
+        return new ResponseEntity<>(savedAddressDTO, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/users/{userId}/addresses")
+    public ResponseEntity<List<AddressDTO>> getUserAddresses(@PathVariable Long userId) {
+        return new ResponseEntity<>(addressService.getUserAddresses(userId), HttpStatus.OK);
+    }
+
+    // delivery zone: every stored address with the pincode, optionally narrowed to a city
+    @GetMapping("/admin/addresses")
+    public ResponseEntity<List<AddressDTO>> findByDeliveryZone(
+            @RequestParam(name = "pincode") String pincode,
+            @RequestParam(name = "city", required = false) String city) {
+        return new ResponseEntity<>(addressService.findByDeliveryZone(pincode, city), HttpStatus.OK);
+    }
+}
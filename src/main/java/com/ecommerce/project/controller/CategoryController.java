@@ -1,14 +1,21 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.cache.CategoryCacheKey;
+import com.ecommerce.project.cache.SerializedResponseCache;
 import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.payload.CategoryBatchResponse;
+import com.ecommerce.project.payload.CategoryCursorResponse;
 import com.ecommerce.project.payload.CategoryDTO;
-import com.ecommerce.project.payload.CategoryResponse;
 import com.ecommerce.project.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -16,15 +23,53 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+
     @GetMapping("/public/categories")
-    public ResponseEntity<CategoryResponse> getAllCategories(
+    public ResponseEntity<byte[]> getAllCategories(
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_CATEGORIES_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "includeStats", defaultValue = "false", required = false) boolean includeStats,
+            ServletWebRequest request
             ) {
-        CategoryResponse categoryResponse =  categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(categoryResponse, HttpStatus.OK);
+        return serializedResponseCache.respond(CategoryCacheKey.of(pageNumber, pageSize, sortBy, sortOrder, includeStats), pageNumber,
+                () -> categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder, includeStats), request);
+    }
+
+    // opt-in keyset paging: send cursor= for the first page, then the returned nextCursor
+    @GetMapping(value = "/public/categories", params = "cursor")
+    public ResponseEntity<CategoryCursorResponse> getAllCategoriesByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_CATEGORIES_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            @RequestParam(name = "includeStats", defaultValue = "false", required = false) boolean includeStats
+            ) {
+        CategoryCursorResponse categoryCursorResponse = categoryService.getAllCategoriesByCursor(cursor, pageSize, sortBy, sortOrder, includeStats);
+        return new ResponseEntity<>(categoryCursorResponse, HttpStatus.OK);
+    }
+
+    // multi-get: categoryIds=1,2,3 (or repeated), answered in the same order
+    @GetMapping("/public/categories/batch")
+    public ResponseEntity<CategoryBatchResponse> getCategoriesByIds(
+            @RequestParam(name = "categoryIds") List<Long> categoryIds,
+            @RequestParam(name = "includeStats", defaultValue = "false", required = false) boolean includeStats
+            ) {
+        CategoryBatchResponse categoryBatchResponse = categoryService.getCategoriesByIds(categoryIds, includeStats);
+        return new ResponseEntity<>(categoryBatchResponse, HttpStatus.OK);
+    }
+
+    // tagged with the category's version; If-None-Match answers 304 while it is unchanged
+    @GetMapping("/public/categories/{categoryId}")
+    public ResponseEntity<CategoryDTO> getCategoryById(@PathVariable Long categoryId, ServletWebRequest request){
+        CategoryDTO categoryDTO = categoryService.getCategoryById(categoryId);
+        if (request.checkNotModified(EntityTags.of(categoryDTO.getVersion()))) {
+            return null;
+        }
+        return new ResponseEntity<>(categoryDTO, HttpStatus.OK);
     }
 
     @PostMapping("/public/categories")
@@ -39,10 +84,12 @@ public class CategoryController {
         return new ResponseEntity<>(deletedCategoryDTO, HttpStatus.OK);
     }
 
+    // with If-Match the rename only happens while the category is still at that version (412 otherwise)
     @PutMapping("/public/categories/{categoryId}")
-    public ResponseEntity<CategoryDTO> updateCategory(@Valid @RequestBody CategoryDTO categoryDTO, @PathVariable Long categoryId){
-        CategoryDTO savedCategoryDTO = categoryService.updateCategory(categoryDTO, categoryId);
-        return new ResponseEntity<>(savedCategoryDTO, HttpStatus.OK);
+    public ResponseEntity<CategoryDTO> updateCategory(@Valid @RequestBody CategoryDTO categoryDTO, @PathVariable Long categoryId,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        CategoryDTO savedCategoryDTO = categoryService.updateCategory(categoryDTO, categoryId, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(savedCategoryDTO.getVersion())).body(savedCategoryDTO);
     }
 
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.exceptions.APIException;
+
+// single products and categories are tagged with their version column, e.g. "3". GET answers If-None-Match with
+// 304, and PUT/PATCH take the tag back in If-Match so a write based on a stale read is refused
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // the version named by an If-Match header; null when there is none or it is "*", which any existing
+    // resource satisfies
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // not one of ours
+            }
+        }
+        throw new APIException("If-Match must be a single ETag returned for this resource, e.g. \"3\"");
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.payload.ReservationRequest;
+import com.ecommerce.project.payload.StockDTO;
+import com.ecommerce.project.service.InventoryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @PostMapping("/public/products/{productId}/reservations")
+    public ResponseEntity<ReservationDTO> reserve(@PathVariable Long productId,
+                                                  @Valid @RequestBody ReservationRequest reservationRequest) {
+        ReservationDTO reservationDTO = inventoryService.reserve(productId, reservationRequest);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/public/reservations/{reservationId}/confirm")
+    public ResponseEntity<ReservationDTO> confirm(@PathVariable String reservationId) {
+        ReservationDTO reservationDTO = inventoryService.confirm(reservationId);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/public/reservations/{reservationId}")
+    public ResponseEntity<ReservationDTO> release(@PathVariable String reservationId) {
+        ReservationDTO reservationDTO = inventoryService.release(reservationId);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/products/{productId}/stock")
+    public ResponseEntity<StockDTO> getStock(@PathVariable Long productId) {
+        StockDTO stockDTO = inventoryService.getStock(productId);
+        return new ResponseEntity<>(stockDTO, HttpStatus.OK);
+    }
+}
@@ -1,17 +1,40 @@
 package com.ecommerce.project.controller;
 
+import com.ecommerce.project.cache.ProductCacheKey;
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.cache.SerializedResponseCache;
 import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.http.AcceptEncoding;
+import com.ecommerce.project.payload.CacheStatsDTO;
+import com.ecommerce.project.payload.ProductBatchResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductImageResponse;
+import com.ecommerce.project.payload.ProductImportReport;
+import com.ecommerce.project.payload.ProductPatch;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.RepricingJobDTO;
+import com.ecommerce.project.payload.RepricingRequest;
+import com.ecommerce.project.payload.SellerProductResponse;
+import com.ecommerce.project.payload.SellerStatsDTO;
+import com.ecommerce.project.service.ProductImportService;
 import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.service.RepricingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api")
@@ -20,6 +43,18 @@ public class ProductController {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ProductImportService productImportService;
+
+    @Autowired
+    RepricingService repricingService;
+
+    @Autowired
+    ProductResponseCache productResponseCache;
+
+    @Autowired
+    SerializedResponseCache serializedResponseCache;
+
     @PostMapping("/admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProduct(@Valid @RequestBody ProductDTO productDTO,
                                                  @PathVariable Long categoryId){
@@ -29,27 +64,84 @@ public class ProductController {
     }
 
 
+    // CSV (with a header row) or NDJSON; columns/fields: categoryId, productName, description, quantity, price, discount
+    @PostMapping("/admin/products/import")
+    public ResponseEntity<ProductImportReport> importProducts(@RequestParam("file") MultipartFile file,
+                                                              @RequestParam(name = "batchSize", required = false) Integer batchSize) throws IOException {
+        ProductImportReport productImportReport = productImportService.importProducts(file, batchSize);
+        return new ResponseEntity<>(productImportReport, HttpStatus.OK);
+    }
+
     @GetMapping("/public/products")
-    public ResponseEntity<ProductResponse> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            ProductFilter filter,
+            ServletWebRequest request
     ){
-        ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        // unfiltered listings go through the response caches, filtered ones straight to the database
+        if (filter.isActive()) {
+            ProductResponse productResponse = productService.filterProducts(filter, pageNumber, pageSize, sortBy, sortOrder);
+            return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        }
+        return serializedResponseCache.respond(ProductCacheKey.all(pageNumber, pageSize, sortBy, sortOrder), pageNumber,
+                () -> productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder), request);
     }
 
     @GetMapping("/public/categories/{categoryId}/products")
-    public ResponseEntity<ProductResponse> getProductByCategory(
+    public ResponseEntity<byte[]> getProductByCategory(
             @PathVariable Long categoryId,
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder,
+            ServletWebRequest request
+    ){
+        return serializedResponseCache.respond(ProductCacheKey.category(categoryId, pageNumber, pageSize, sortBy, sortOrder), pageNumber,
+                () -> productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder), request);
+    }
+
+    // tagged with the product's version; If-None-Match answers 304 while it is unchanged
+    @GetMapping("/public/products/{productId}")
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long productId, ServletWebRequest request){
+        ProductDTO productDTO = productService.getProductById(productId);
+        if (request.checkNotModified(EntityTags.of(productDTO.getVersion()))) {
+            return null;
+        }
+        return new ResponseEntity<>(productDTO, HttpStatus.OK);
+    }
+
+    // multi-get for carts and recommendation lists: productIds=1,2,3 (or repeated), answered in the same order
+    @GetMapping("/public/products/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam(name = "productIds") List<Long> productIds){
+        ProductBatchResponse productBatchResponse = productService.getProductsByIds(productIds);
+        return new ResponseEntity<>(productBatchResponse, HttpStatus.OK);
+    }
+
+    // opt-in keyset paging: send cursor= for the first page, then the returned nextCursor
+    @GetMapping(value = "/public/products", params = "cursor")
+    public ResponseEntity<ProductCursorResponse> getAllProductsByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
+    ){
+        ProductCursorResponse productCursorResponse = productService.getAllProductsByCursor(cursor, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(productCursorResponse, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/public/categories/{categoryId}/products", params = "cursor")
+    public ResponseEntity<ProductCursorResponse> getProductByCategoryByCursor(
+            @PathVariable Long categoryId,
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
             @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_DIR, required = false) String sortOrder
     ){
-        ProductResponse productResponse = productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        ProductCursorResponse productCursorResponse = productService.searchByCategoryByCursor(categoryId, cursor, pageSize, sortBy, sortOrder);
+        return new ResponseEntity<>(productCursorResponse, HttpStatus.OK);
     }
 
     @GetMapping("/public/products/keyword/{keyword}")
@@ -64,11 +156,74 @@ public class ProductController {
         return new ResponseEntity<>(productResponse, HttpStatus.FOUND);
     }
 
+    // a seller's inventory in productId order; pass the returned nextAfterProductId for the next page
+    @GetMapping("/public/sellers/{sellerId}/products")
+    public ResponseEntity<SellerProductResponse> getSellerProducts(
+            @PathVariable Long sellerId,
+            @RequestParam(name = "afterProductId", defaultValue = "0", required = false) Long afterProductId,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize
+    ){
+        SellerProductResponse sellerProductResponse = productService.getSellerProducts(sellerId, afterProductId, pageSize);
+        return new ResponseEntity<>(sellerProductResponse, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/sellers/{sellerId}/products/stats")
+    public ResponseEntity<SellerStatsDTO> getSellerStats(@PathVariable Long sellerId){
+        return new ResponseEntity<>(productService.getSellerStats(sellerId), HttpStatus.OK);
+    }
+
+    // full catalog (or one category) as NDJSON ordered by productId; pass the last productId seen to resume.
+    // Runs asynchronously under spring.mvc.async.request-timeout, which is sized for a full catalog
+    @GetMapping(value = "/public/products/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "afterProductId", defaultValue = "0", required = false) Long afterProductId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ){
+        StreamingResponseBody body = productService.exportProducts(categoryId, afterProductId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!AcceptEncoding.acceptsGzip(acceptEncoding)) {
+            return response.body(body);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                    body.writeTo(gzipOutputStream);
+                    gzipOutputStream.finish();
+                });
+    }
+
+    // with If-Match the write only happens while the product is still at that version (412 otherwise)
     @PutMapping("/admin/products/{productId}")
     public ResponseEntity<ProductDTO> updateProduct(@Valid @RequestBody ProductDTO productDTO,
-                                                    @PathVariable Long productId){
-        ProductDTO updatedProductDTO = productService.updateProduct(productId, productDTO);
-        return new ResponseEntity<>(updatedProductDTO, HttpStatus.OK);
+                                                    @PathVariable Long productId,
+                                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        ProductDTO updatedProductDTO = productService.updateProduct(productId, productDTO, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedProductDTO.getVersion())).body(updatedProductDTO);
+    }
+
+    // partial update: only the fields present in the body are changed, and only their columns are written
+    @PatchMapping("/admin/products/{productId}")
+    public ResponseEntity<ProductDTO> patchProduct(@Valid @RequestBody ProductPatch productPatch,
+                                                   @PathVariable Long productId,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        ProductDTO updatedProductDTO = productService.patchProduct(productId, productPatch, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedProductDTO.getVersion())).body(updatedProductDTO);
+    }
+
+    // applies a discount rule to categories and/or a set of products (the whole catalog with neither) in the
+    // background; poll the returned job for progress
+    @PostMapping("/admin/products/repricing")
+    public ResponseEntity<RepricingJobDTO> repriceProducts(@Valid @RequestBody RepricingRequest repricingRequest){
+        RepricingJobDTO repricingJobDTO = repricingService.submit(repricingRequest);
+        return new ResponseEntity<>(repricingJobDTO, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/admin/products/repricing/{jobId}")
+    public ResponseEntity<RepricingJobDTO> getRepricingJob(@PathVariable String jobId){
+        return new ResponseEntity<>(repricingService.getJob(jobId), HttpStatus.OK);
     }
 
     @DeleteMapping("/admin/products/{productId}")
@@ -78,10 +233,15 @@ public class ProductController {
     }
 
     @PutMapping("/products/{productId}/image")
-    public ResponseEntity<ProductDTO> updateProductImage(@PathVariable Long productId,
-                                                         @RequestParam("image")MultipartFile image) throws IOException {
-        ProductDTO updatedProduct = productService.updateProductImage(productId, image);
-        return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
+    public ResponseEntity<ProductImageResponse> updateProductImage(@PathVariable Long productId,
+                                                                   @RequestParam("image")MultipartFile image) throws IOException {
+        ProductImageResponse imageResponse = productService.updateProductImage(productId, image);
+        return new ResponseEntity<>(imageResponse, imageResponse.isProcessing() ? HttpStatus.ACCEPTED : HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/products/cache/stats")
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats(){
+        return new ResponseEntity<>(productResponseCache.stats(), HttpStatus.OK);
     }
 
 }
@@ -0,0 +1,9 @@
+package com.ecommerce.project.exceptions;
+
+public class ForbiddenException extends RuntimeException {
+    private static final long serialVersionUID = 1;
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.project.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+    private static final long serialVersionUID = 1;
+
+    public InsufficientStockException(Long productId, int requested, long available) {
+        super(String.format("Insufficient stock for productId: %d (requested %d, available %d)",
+                productId, requested, Math.max(available, 0)));
+    }
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.project.exceptions;
 
 import com.ecommerce.project.payload.APIResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -38,6 +40,49 @@ public class MyGlobalExceptionHandler {
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<APIResponse> myInsufficientStockException(InsufficientStockException e){
+        APIResponse apiResponse = new APIResponse(e.getMessage(), false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    // a versioned row changed between read and write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<APIResponse> myOptimisticLockingFailureException(OptimisticLockingFailureException e){
+        APIResponse apiResponse = new APIResponse("The resource was modified concurrently, please retry", false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.CONFLICT);
+    }
+
+    // an If-Match header named a version the resource is no longer at
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<APIResponse> myPreconditionFailedException(PreconditionFailedException e){
+        APIResponse apiResponse = new APIResponse(e.getMessage(), false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // rejected by admission control: the client may retry after the Retry-After delay
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<APIResponse> myTooManyRequestsException(TooManyRequestsException e){
+        APIResponse apiResponse = new APIResponse(e.getMessage(), false);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<APIResponse> myServiceOverloadedException(ServiceOverloadedException e){
+        APIResponse apiResponse = new APIResponse(e.getMessage(), false);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<APIResponse> myForbiddenException(ForbiddenException e){
+        APIResponse apiResponse = new APIResponse(e.getMessage(), false);
+        return new ResponseEntity<>(apiResponse, HttpStatus.FORBIDDEN);
+    }
+
     @ExceptionHandler(NoCategoriesFound.class)
     public ResponseEntity<APIResponse> myNoCategoriesFound(NoCategoriesFound e){
         APIResponse apiResponse = new APIResponse(e.getMessage(), false);
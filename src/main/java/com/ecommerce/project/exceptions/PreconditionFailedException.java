@@ -0,0 +1,9 @@
+package com.ecommerce.project.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1;
+
+    public PreconditionFailedException(String resourceName, String field, Long fieldId, Long expectedVersion) {
+        super(String.format("%s with %s: %d has changed since version %d", resourceName, field, fieldId, expectedVersion));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.exceptions;
+
+public class ServiceOverloadedException extends RuntimeException {
+    private static final long serialVersionUID = 1;
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(long retryAfterSeconds) {
+        super("The service is busy, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    private static final long serialVersionUID = 1;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(long retryAfterSeconds) {
+        super(String.format("Too many requests, retry in %d s", retryAfterSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.project.http;
+
+import java.util.Locale;
+
+// Accept-Encoding negotiation for the responses we gzip ourselves (RFC 9110 section 12.5.3): a listed coding with
+// q=0 is refused, "*" stands for any coding not listed, and a malformed weight counts as q=0
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String member : acceptEncoding.split(",")) {
+            String[] parts = member.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = weight(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? weight : Math.max(gzip, weight);
+            } else if (coding.equals("*")) {
+                any = weight;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                String value = parameter.substring(2).trim();
+                if (!value.matches("0(\\.\\d{0,3})?|1(\\.0{0,3})?")) {
+                    return 0;
+                }
+                return Double.parseDouble(value);
+            }
+        }
+        return 1;
+    }
+}
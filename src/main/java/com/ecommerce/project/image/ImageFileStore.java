@@ -0,0 +1,141 @@
+package com.ecommerce.project.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// read side of the files FileServiceImpl writes under project.image
+@Component
+public class ImageFileStore {
+
+    // <sha256>.<ext> or <sha256>-<variant>.<ext>, as written by the upload pipeline
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(-[a-z]+)?\\.[a-z]+");
+    // anything else (e.g. files from before content addressing) must still be a plain name inside the directory
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*\\.[A-Za-z]+");
+    // the raster formats uploads are stored in; anything else in the directory (svg, html, ...) is never served,
+    // whatever its name
+    private static final Set<MediaType> SERVED_TYPES = Set.of(MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG,
+            MediaType.IMAGE_GIF, MediaType.parseMediaType("image/bmp"));
+    private static final int HASH_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final long hotMaximumFileSize;
+    // hot thumbnails served straight from memory
+    private final Cache<String, byte[]> hotFiles;
+    // etags of files that are not named by their hash, recomputed when the file changes
+    private final Cache<String, HashedFile> computedETags;
+
+    public ImageFileStore(@Value("${project.image}") String path,
+                          @Value("${project.image.hot-cache.maximum-bytes}") long hotMaximumBytes,
+                          @Value("${project.image.hot-cache.maximum-file-bytes}") long hotMaximumFileSize) {
+        this.directory = Path.of(path);
+        this.hotMaximumFileSize = hotMaximumFileSize;
+        this.hotFiles = Caffeine.newBuilder()
+                .maximumWeight(hotMaximumBytes)
+                .<String, byte[]>weigher((fileName, bytes) -> bytes.length)
+                .build();
+        this.computedETags = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+    }
+
+    public Optional<StoredImage> find(String fileName) throws IOException {
+        boolean contentAddressed = CONTENT_ADDRESSED.matcher(fileName).matches();
+        if (!contentAddressed && !SAFE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (!SERVED_TYPES.contains(mediaType)) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(fileName);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        String eTag = contentAddressed
+                ? quote(fileName.substring(0, fileName.lastIndexOf('.')))
+                : computedETag(fileName, file, attributes);
+        return Optional.of(new StoredImage(fileName, file, attributes.size(), eTag, contentAddressed, mediaType));
+    }
+
+    // bytes of a hot thumbnail, loaded on first request; null for anything that should go out via the file channel
+    public byte[] hotBytes(StoredImage image) {
+        if (!image.immutable() || !image.fileName().contains("-" + ImageVariant.THUMBNAIL.suffix() + ".")
+                || image.length() > hotMaximumFileSize) {
+            return null;
+        }
+        return hotFiles.get(image.fileName(), fileName -> {
+            try {
+                return Files.readAllBytes(image.path());
+            } catch (IOException e) {
+                return null;
+            }
+        });
+    }
+
+    private String computedETag(String fileName, Path file, BasicFileAttributes attributes) throws IOException {
+        HashedFile hashed = computedETags.getIfPresent(fileName);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (hashed != null && hashed.lastModified() == lastModified && hashed.length() == attributes.size()) {
+            return hashed.eTag();
+        }
+        String eTag = quote(sha256(file));
+        computedETags.put(fileName, new HashedFile(lastModified, attributes.size(), eTag));
+        return eTag;
+    }
+
+    // hashes through memory-mapped windows instead of reading the file onto the heap
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += HASH_CHUNK_SIZE) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(HASH_CHUNK_SIZE, size - position));
+                digest.update((ByteBuffer) window);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    // immutable: the name is derived from the content, so the bytes behind it never change
+    public record StoredImage(String fileName, Path path, long length, String eTag, boolean immutable,
+                              MediaType mediaType) {
+    }
+
+    private record HashedFile(long lastModified, long length, String eTag) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.project.image;
+
+// resized copies generated next to every uploaded original, named <hash>-<suffix>.<ext>
+public enum ImageVariant {
+    MEDIUM("medium", 800),
+    THUMBNAIL("thumb", 200);
+
+    private final String suffix;
+    private final int maxDimension;
+
+    ImageVariant(String suffix, int maxDimension) {
+        this.suffix = suffix;
+        this.maxDimension = maxDimension;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    // abc123.png -> abc123-thumb.png
+    public String fileName(String originalFileName) {
+        int dot = originalFileName.lastIndexOf('.');
+        return originalFileName.substring(0, dot) + "-" + suffix + originalFileName.substring(dot);
+    }
+}
@@ -0,0 +1,267 @@
+package com.ecommerce.project.inventory;
+
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// in-memory stock counters for products that take reservations. Reserve/confirm/release are lock-free CAS
+// operations; confirmed units are written back to products.quantity in batches by reconcile(), which
+// read-modify-writes the row under its @Version so concurrent product updates are never overwritten.
+// reconcile() also drops counters left idle, nothing reserved or unwritten, for project.inventory.idle-eviction-ms
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+    private static final int STRIPES = 64;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    // available value of an evicted entry; a reservation that finds it looks the product up again
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    // serializes loading a product's counters with quantity overwrites and eviction, per stripe of product ids
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final long idleEvictionNanos;
+
+    public StockLedger(@Value("${project.inventory.idle-eviction-ms}") long idleEvictionMs) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+    }
+
+    // false when fewer than quantity units are available. The units are counted as reserved before they leave
+    // available, so a product with a reservation in flight never looks idle to evictIfIdle
+    public boolean reserve(Long productId, int quantity) {
+        while (true) {
+            ProductStock stock = stock(productId);
+            stock.lastUsedNanos = System.nanoTime();
+            stock.reserved.addAndGet(quantity);
+            AtomicLong available = stock.available;
+            long current;
+            do {
+                current = available.get();
+                if (current == RETIRED || current < quantity) {
+                    stock.reserved.addAndGet(-quantity);
+                    break;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            if (current != RETIRED) {
+                return current >= quantity;
+            }
+        }
+    }
+
+    // unwritten before reserved (and available before reserved in release), so confirmed units are never
+    // missing from both counters while the entry is checked for eviction
+    public void confirm(Long productId, int quantity) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null) {
+            stock.unwritten.addAndGet(quantity);
+            stock.reserved.addAndGet(-quantity);
+        }
+    }
+
+    public void release(Long productId, int quantity) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null) {
+            stock.available.addAndGet(quantity);
+            stock.reserved.addAndGet(-quantity);
+        }
+    }
+
+    public long available(Long productId) {
+        while (true) {
+            long available = stock(productId).available.get();
+            if (available != RETIRED) {
+                return Math.max(available, 0);
+            }
+        }
+    }
+
+    public long reserved(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        return stock == null ? 0 : stock.reserved.get();
+    }
+
+    // products.quantity was overwritten (e.g. a restock) at newVersion; the counters move by the same amount
+    // unless they were loaded from that version or a later one
+    public void quantityChanged(Long productId, Integer previousQuantity, Integer newQuantity, Long newVersion) {
+        Lock lock = stripe(productId);
+        lock.lock();
+        try {
+            ProductStock stock = stocks.get(productId);
+            if (stock != null && newVersion > stock.loadedVersion) {
+                stock.available.addAndGet(quantity(newQuantity) - quantity(previousQuantity));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void forget(Long productId) {
+        stocks.remove(productId);
+    }
+
+    // writes confirmed units back to products.quantity and evicts idle counters. One pass at a time, and the only
+    // place unwritten is taken from, so an entry is never evicted while its units are on their way to the database
+    @Scheduled(fixedDelayString = "${project.inventory.reconcile-interval-ms}")
+    public synchronized void reconcile() {
+        long idleSince = System.nanoTime() - idleEvictionNanos;
+        stocks.forEach((productId, stock) -> {
+            long units = stock.unwritten.getAndSet(0);
+            if (units == 0) {
+                if (stock.lastUsedNanos - idleSince <= 0) {
+                    evictIfIdle(productId, stock);
+                }
+            } else if (!write(productId, units)) {
+                stock.unwritten.addAndGet(units);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flush() {
+        reconcile();
+    }
+
+    // false when the units were not written and have to be tried again
+    private boolean write(Long productId, long units) {
+        Optional<Product> written;
+        try {
+            written = writeQuantity(productId, units);
+        } catch (RuntimeException e) {
+            log.warn("Could not write stock for productId {}", productId, e);
+            return false;
+        }
+        // committed: from here on a failure must not hand the units back, or the next pass subtracts them again
+        if (written.isEmpty()) {
+            // the product was deleted; its sold units have nowhere to go
+            stocks.remove(productId);
+            return true;
+        }
+        Product product = written.get();
+        try {
+            categoryStatsIndex.index(product);
+            productResponseCache.invalidateProduct(product.getCategory().getCategoryId(),
+                    ProductSearchIndex.document(product));
+        } catch (RuntimeException e) {
+            log.warn("Stock written for productId {}, but the stats and cached pages were not refreshed", productId, e);
+        }
+        return true;
+    }
+
+    private Optional<Product> writeQuantity(Long productId, long units) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Optional<Product> product = productRepository.findById(productId);
+                    product.ifPresent(p -> {
+                        p.setQuantity((int) (quantity(p.getQuantity()) - units));
+                        productRepository.saveAndFlush(p);
+                    });
+                    return product;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Stock write for productId {} lost a version race, attempt {}", productId, attempt);
+            }
+        }
+    }
+
+    // available is read first and swapped for RETIRED last: a reservation taken after the read changes it and
+    // fails the swap, and one taken before it shows up in reserved or, once confirmed, in unwritten
+    private void evictIfIdle(Long productId, ProductStock stock) {
+        Lock lock = stripe(productId);
+        lock.lock();
+        try {
+            long available = stock.available.get();
+            if (stock.reserved.get() == 0 && stock.unwritten.get() == 0
+                    && stock.available.compareAndSet(available, RETIRED)) {
+                stocks.remove(productId, stock);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ProductStock stock(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null && stock.available.get() != RETIRED) {
+            return stock;
+        }
+        Lock lock = stripe(productId);
+        lock.lock();
+        try {
+            stock = stocks.get(productId);
+            // an evicted entry is removed under this lock, so one found here is live
+            if (stock == null) {
+                StockLevel stockLevel = productRepository.findStockLevel(productId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+                stock = new ProductStock(quantity(stockLevel.quantity()),
+                        stockLevel.version() == null ? 0 : stockLevel.version());
+                stocks.put(productId, stock);
+            }
+            return stock;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock stripe(Long productId) {
+        return stripes[Math.floorMod(productId.hashCode(), STRIPES)];
+    }
+
+    private static long quantity(Integer quantity) {
+        return quantity == null ? 0 : quantity;
+    }
+
+    private static final class ProductStock {
+        // products.quantity - reserved - unwritten; may go negative after a quantity overwrite below the reserved units
+        private final AtomicLong available;
+        private final AtomicLong reserved = new AtomicLong();
+        // confirmed but not yet subtracted from products.quantity
+        private final AtomicLong unwritten = new AtomicLong();
+        // row version the counters were loaded at; quantity overwrites up to it are already included
+        private final long loadedVersion;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private ProductStock(long quantity, long loadedVersion) {
+            this.available = new AtomicLong(quantity);
+            this.loadedVersion = loadedVersion;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.ecommerce.project.inventory;
+
+// products.quantity together with the row version it was read at
+public record StockLevel(Integer quantity, Long version) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.payload.AddressDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AddressMapper {
+
+    public AddressDTO toDTO(Address address) {
+        return new AddressDTO(address.getAddressId(), address.getStreet(), address.getBuildingName(),
+                address.getCity(), address.getState(), address.getCountry(), address.getPincode());
+    }
+
+    // the fingerprint is set by AddressCanonicalizer, the users by the caller
+    public Address toEntity(AddressDTO addressDTO) {
+        return new Address(addressDTO.getStreet(), addressDTO.getBuildingName(), addressDTO.getCity(),
+                addressDTO.getState(), addressDTO.getCountry(), addressDTO.getPincode());
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.pagination.KeysetCursor;
+import com.ecommerce.project.payload.CategoryCursorResponse;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.CategoryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setCategoryId(category.getCategoryId());
+        categoryDTO.setCategoryName(category.getCategoryName());
+        categoryDTO.setVersion(category.getVersion());
+        return categoryDTO;
+    }
+
+    public Category toEntity(CategoryDTO categoryDTO) {
+        Category category = new Category();
+        category.setCategoryId(categoryDTO.getCategoryId());
+        category.setCategoryName(categoryDTO.getCategoryName());
+        category.setVersion(categoryDTO.getVersion());
+        return category;
+    }
+
+    public CategoryResponse toResponse(Page<Category> categoryPage) {
+        List<CategoryDTO> categoryDTOS = categoryPage.getContent().stream()
+                .map(this::toDTO)
+                .toList();
+        CategoryResponse categoryResponse = new CategoryResponse();
+        categoryResponse.setContent(categoryDTOS);
+        categoryResponse.setPageNumber(categoryPage.getNumber());
+        categoryResponse.setPageSize(categoryPage.getSize());
+        categoryResponse.setTotalElements(categoryPage.getTotalElements());
+        categoryResponse.setTotalPages(categoryPage.getTotalPages());
+        categoryResponse.setLastPage(categoryPage.isLast());
+        return categoryResponse;
+    }
+
+    public CategoryCursorResponse toCursorResponse(Window<Category> categoryWindow, String sortBy, String sortOrder) {
+        List<CategoryDTO> categoryDTOList = categoryWindow.getContent().stream()
+                .map(this::toDTO)
+                .toList();
+        CategoryCursorResponse categoryCursorResponse = new CategoryCursorResponse();
+        categoryCursorResponse.setContent(categoryDTOList);
+        categoryCursorResponse.setPageSize(categoryDTOList.size());
+        categoryCursorResponse.setLastPage(!categoryWindow.hasNext());
+        if (categoryWindow.hasNext()) {
+            categoryCursorResponse.setNextCursor(KeysetCursor.encode(sortBy, sortOrder,
+                    categoryWindow.positionAt(categoryWindow.size() - 1)));
+        }
+        return categoryCursorResponse;
+    }
+}
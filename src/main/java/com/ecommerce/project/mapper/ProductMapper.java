@@ -0,0 +1,75 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.pagination.KeysetCursor;
+import com.ecommerce.project.payload.ProductCursorResponse;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// plain field copies, equivalent to what ModelMapper produced for these types
+@Component
+public class ProductMapper {
+
+    public ProductDTO toDTO(Product product) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setProductId(product.getProductId());
+        productDTO.setProductName(product.getProductName());
+        productDTO.setDescription(product.getDescription());
+        productDTO.setImage(product.getImage());
+        productDTO.setQuantity(product.getQuantity());
+        productDTO.setPrice(product.getPrice());
+        productDTO.setDiscount(product.getDiscount());
+        productDTO.setSpecialPrice(product.getSpecialPrice());
+        productDTO.setVersion(product.getVersion());
+        return productDTO;
+    }
+
+    // category and seller are never part of the DTO, the caller sets them
+    public Product toEntity(ProductDTO productDTO) {
+        Product product = new Product();
+        product.setProductId(productDTO.getProductId());
+        product.setProductName(productDTO.getProductName());
+        product.setDescription(productDTO.getDescription());
+        product.setImage(productDTO.getImage());
+        product.setQuantity(productDTO.getQuantity());
+        product.setPrice(productDTO.getPrice());
+        product.setDiscount(productDTO.getDiscount());
+        product.setSpecialPrice(productDTO.getSpecialPrice());
+        product.setVersion(productDTO.getVersion());
+        return product;
+    }
+
+    public ProductResponse toResponse(Page<Product> productPage) {
+        List<ProductDTO> productDTOList = productPage.getContent().stream()
+                .map(this::toDTO)
+                .toList();
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setContent(productDTOList);
+        productResponse.setPageNumber(productPage.getNumber());
+        productResponse.setPageSize(productPage.getSize());
+        productResponse.setTotalElements(productPage.getTotalElements());
+        productResponse.setTotalPages(productPage.getTotalPages());
+        productResponse.setLastPage(productPage.isLast());
+        return productResponse;
+    }
+
+    public ProductCursorResponse toCursorResponse(Window<Product> productWindow, String sortBy, String sortOrder) {
+        List<ProductDTO> productDTOList = productWindow.getContent().stream()
+                .map(this::toDTO)
+                .toList();
+        ProductCursorResponse productCursorResponse = new ProductCursorResponse();
+        productCursorResponse.setContent(productDTOList);
+        productCursorResponse.setPageSize(productDTOList.size());
+        productCursorResponse.setLastPage(!productWindow.hasNext());
+        if (productWindow.hasNext()) {
+            productCursorResponse.setNextCursor(KeysetCursor.encode(sortBy, sortOrder,
+                    productWindow.positionAt(productWindow.size() - 1)));
+        }
+        return productCursorResponse;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.project.metrics;
+
+import com.ecommerce.project.payload.CategoryCursorResponse;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+// rows per listing response, tagged with the endpoint's URI pattern
+@ControllerAdvice
+public class ResponseRowsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseRowsAdvice(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        List<?> rows = rows(body);
+        if (rows != null) {
+            record(meterRegistry, uri(request), rows.size());
+        }
+        return body;
+    }
+
+    public static void record(MeterRegistry meterRegistry, String uri, long rows) {
+        DistributionSummary.builder("ecom.http.response.rows")
+                .description("Rows returned per listing response")
+                .baseUnit("rows")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(10_000.0)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    public static List<?> rows(Object body) {
+        if (body instanceof ProductResponse productResponse) {
+            return productResponse.getContent();
+        }
+        if (body instanceof CategoryResponse categoryResponse) {
+            return categoryResponse.getContent();
+        }
+        if (body instanceof ProductCursorResponse productCursorResponse) {
+            return productCursorResponse.getContent();
+        }
+        if (body instanceof CategoryCursorResponse categoryCursorResponse) {
+            return categoryCursorResponse.getContent();
+        }
+        return null;
+    }
+
+    private static String uri(ServerHttpRequest request) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            Object pattern = servletRequest.getServletRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                return pattern.toString();
+            }
+        }
+        return "UNKNOWN";
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.project.model;
 
+import com.ecommerce.project.address.AddressCanonicalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -12,7 +13,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "addresses")
+// one row per distinct address (see AddressCanonicalizer); delivery-zone queries go through the pincode index
+@Table(name = "addresses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_addresses_fingerprint", columnNames = "fingerprint"),
+        indexes = @Index(name = "idx_addresses_pincode_city", columnList = "pincode, city"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +50,10 @@ public class Address {
     @Size(min = 6, message = "pincode must be at-least 5 characters")
     private String pincode;
 
+    @ToString.Exclude
+    @Column(length = 43)
+    private String fingerprint;
+
     @ManyToMany(mappedBy = "addresses")
     @ToString.Exclude
     private List<User> users = new ArrayList<>();
@@ -58,4 +66,10 @@ public class Address {
         this.country = country;
         this.pincode = pincode;
     }
+
+    // rows read back share the interned city, state and country strings
+    @PostLoad
+    private void internRegions() {
+        AddressCanonicalizer.intern(this);
+    }
 }
@@ -6,10 +6,17 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
 @Entity(name = "categories")
+@Table(indexes = @Index(name = "idx_categories_category_name", columnList = "category_name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +30,13 @@ public class Category {
     @Size(min = 5, message = "must contain at-least 5 characters")
     private String categoryName;
 
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-products")
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     private List<Product> products;
+
+    // optimistic lock for renames, exposed to clients as the ETag; the column default covers existing rows
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -7,16 +7,38 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "products")
+// updates set only the columns that changed (plus the version), so a quantity or price edit does not rewrite
+// the whole row and every index over it
+@DynamicUpdate
+@Table(name = "products",
+        indexes = {
+                // also serves lookups by product_name alone
+                @Index(name = "idx_products_name_category", columnList = "product_name, category_id"),
+                // category listings ordered by price
+                @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+                // range filters: specialPrice within a category, or price/specialPrice across the catalog
+                @Index(name = "idx_products_category_special_price", columnList = "category_id, special_price"),
+                @Index(name = "idx_products_special_price", columnList = "special_price"),
+                @Index(name = "idx_products_price", columnList = "price"),
+                // a seller's inventory in productId order
+                @Index(name = "idx_products_seller_product", columnList = "seller_id, product_id")
+        })
 @ToString
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long productId;
 
     @NotBlank
@@ -32,11 +54,20 @@ public class Product {
     private double discount;
     private double specialPrice;
 
-    @ManyToOne
+    // none of the product read paths need the associations, so they are only loaded on access
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id")
     private User user;
+
+    // optimistic lock for writes that read-modify-write the row (stock reconciliation, product updates), exposed
+    // to clients as the ETag; the column default covers rows inserted outside JPA
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
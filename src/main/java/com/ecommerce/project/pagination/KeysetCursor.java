@@ -0,0 +1,110 @@
+package com.ecommerce.project.pagination;
+
+import com.ecommerce.project.exceptions.APIException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// opaque next-page token: the sort it belongs to plus the (sortKey, id) values of the last row served
+public final class KeysetCursor {
+
+    private static final byte VERSION = 1;
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String sortBy, String sortOrder, ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(isAscending(sortOrder));
+            out.writeByte(keys.size());
+            for (Map.Entry<String, Object> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // an empty cursor starts from the first row; a cursor issued for a different sort is rejected, and so is one
+    // whose keys are not exactly the properties of keysetSort with values of their types on entityType
+    public static ScrollPosition decode(String cursor, Sort keysetSort, Class<?> entityType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Sort.Order order = keysetSort.iterator().next();
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION
+                    || !in.readUTF().equals(order.getProperty())
+                    || in.readBoolean() != order.isAscending()) {
+                throw new APIException("Cursor does not belong to this sort order");
+            }
+            int keyCount = in.readByte();
+            for (int i = 0; i < keyCount; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            if (in.available() > 0) {
+                throw new IOException("Trailing cursor bytes");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new APIException("Invalid cursor: " + cursor);
+        }
+        if (!keys.keySet().equals(keysetSort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet()))) {
+            throw new APIException("Invalid cursor: " + cursor);
+        }
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            Field field = ReflectionUtils.findField(entityType, key.getKey());
+            if (field == null || !ClassUtils.resolvePrimitiveIfNecessary(field.getType()).isInstance(key.getValue())) {
+                throw new APIException("Invalid cursor: " + cursor);
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static boolean isAscending(String sortOrder) {
+        return sortOrder.equalsIgnoreCase("asc");
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long l) {
+            out.writeByte('J');
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte('I');
+            out.writeInt(i);
+        } else if (value instanceof Double d) {
+            out.writeByte('D');
+            out.writeDouble(d);
+        } else if (value instanceof String s) {
+            out.writeByte('S');
+            out.writeUTF(s);
+        } else {
+            throw new IllegalArgumentException("Unsupported cursor key: " + value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case 'J' -> in.readLong();
+            case 'I' -> in.readInt();
+            case 'D' -> in.readDouble();
+            case 'S' -> in.readUTF();
+            default -> throw new IOException("Unknown cursor key type");
+        };
+    }
+}
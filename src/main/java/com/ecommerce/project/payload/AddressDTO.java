@@ -0,0 +1,38 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressDTO {
+    private Long addressId;
+
+    @NotBlank
+    @Size(min = 5, message = "street name must be at-least 5 characters")
+    private String street;
+
+    @NotBlank
+    @Size(min = 5, message = "building name must be at-least 5 characters")
+    private String buildingName;
+
+    @NotBlank
+    @Size(min = 3, message = "city name must be at-least 3 characters")
+    private String city;
+
+    @NotBlank
+    @Size(min = 2, message = "state name must be at-least 5 characters")
+    private String state;
+
+    @NotBlank
+    @Size(min = 2, message = "country name must be at-least 5 characters")
+    private String country;
+
+    @NotBlank
+    @Size(min = 6, message = "pincode must be at-least 5 characters")
+    private String pincode;
+}
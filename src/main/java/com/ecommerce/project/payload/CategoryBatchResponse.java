@@ -0,0 +1,16 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBatchResponse {
+    // one entry per requested id, in request order; null where the category does not exist
+    private List<CategoryDTO> content;
+    private List<Long> missingIds;
+}
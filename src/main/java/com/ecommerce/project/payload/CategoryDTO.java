@@ -1,5 +1,7 @@
 package com.ecommerce.project.payload;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -15,4 +17,12 @@ public class CategoryDTO {
     @NotBlank
     @Size(min = 5, message = "must contain at-least 5 characters")
     private String categoryName;
+
+    // only filled in when the listing is requested with includeStats=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CategoryStatsDTO stats;
+
+    // sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 }
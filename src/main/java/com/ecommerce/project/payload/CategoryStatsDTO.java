@@ -0,0 +1,17 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatsDTO {
+    private long productCount;
+    // null when the category has no products
+    private Double minSpecialPrice;
+    private Double maxSpecialPrice;
+    private Double avgSpecialPrice;
+    private long totalStock;
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// specialPrice bucket [from, to); from is null for the first bucket, to for the last
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceFacet {
+    private Double from;
+    private Double to;
+    private long count;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.project.payload;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,4 +23,8 @@ public class ProductDTO {
     private double price;
     private double discount;
     private double specialPrice;
+
+    // sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 }
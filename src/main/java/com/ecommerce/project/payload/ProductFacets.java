@@ -0,0 +1,16 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// each facet ignores its own filter, so clients can show the counts for widening a selection
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+    private List<PriceFacet> specialPrice;
+    private List<CategoryFacet> categories;
+}
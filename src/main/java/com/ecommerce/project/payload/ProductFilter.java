@@ -0,0 +1,35 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// optional query parameters of GET /api/public/products; every bound is inclusive
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    private List<Long> categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minSpecialPrice;
+    private Double maxSpecialPrice;
+    private Double minDiscount;
+    private Double maxDiscount;
+    private Integer minQuantity;
+    private Integer maxQuantity;
+    private Boolean inStock;
+    // include facet counts in the response
+    private boolean facets;
+
+    public boolean isActive() {
+        return facets || (categoryId != null && !categoryId.isEmpty())
+                || minPrice != null || maxPrice != null
+                || minSpecialPrice != null || maxSpecialPrice != null
+                || minDiscount != null || maxDiscount != null
+                || minQuantity != null || maxQuantity != null
+                || inStock != null;
+    }
+}
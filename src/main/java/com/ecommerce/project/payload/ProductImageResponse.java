@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageResponse {
+    private ProductDTO product;
+    // "original", "medium", "thumb" -> URL
+    private Map<String, String> images;
+    // true while the resized variants are still being generated
+    private boolean processing;
+}
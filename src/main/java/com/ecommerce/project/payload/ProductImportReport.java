@@ -0,0 +1,19 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+    private long rowsReceived;
+    private long rowsImported;
+    private long rowsRejected;
+    private List<ImportRowError> errors;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one line of a bulk import file (CSV columns or NDJSON fields)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+    @NotNull
+    private Long categoryId;
+
+    @NotBlank
+    @Size(min = 3, message = "must contain at-least 3 characters")
+    private String productName;
+
+    @NotBlank
+    @Size(min = 6, message = "must contain at-least 6 characters")
+    private String description;
+
+    @PositiveOrZero
+    private Integer quantity;
+
+    @NotNull
+    @PositiveOrZero
+    private Double price;
+
+    @PositiveOrZero
+    private Double discount;
+}
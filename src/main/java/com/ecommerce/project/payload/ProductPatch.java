@@ -0,0 +1,23 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// body of PATCH /api/admin/products/{productId}: absent (null) fields are left as they are, and specialPrice
+// follows from price and discount
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatch {
+
+    @Size(min = 3, message = "must contain at-least 3 characters")
+    private String productName;
+
+    @Size(min = 6, message = "must contain at-least 6 characters")
+    private String description;
+    private Integer quantity;
+    private Double price;
+    private Double discount;
+}
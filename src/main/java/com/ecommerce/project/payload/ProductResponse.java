@@ -1,5 +1,6 @@
 package com.ecommerce.project.payload;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,8 @@ public class ProductResponse {
     private Long totalElements;
     private Integer totalPages;
     private boolean lastPage;
+
+    // only present on filtered listings requested with facets=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacets facets;
 }
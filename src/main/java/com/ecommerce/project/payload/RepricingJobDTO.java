@@ -0,0 +1,23 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingJobDTO {
+    private String jobId;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String status;
+    // counted when the job starts; product ids that match no product are included
+    private long productsMatched;
+    private long productsUpdated;
+    private long chunksCompleted;
+    private Instant submittedAt;
+    private long elapsedMillis;
+    private String error;
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.pricing.DiscountType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// body of POST /api/admin/products/repricing: one discount rule applied to the products of categoryIds and to
+// productIds; with neither given it applies to the whole catalog
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingRequest {
+
+    @NotNull
+    private DiscountType discountType;
+
+    // a percentage (0 clears the discount) or an amount off the price
+    @NotNull
+    @PositiveOrZero
+    private Double value;
+
+    private List<Long> categoryIds;
+    private List<Long> productIds;
+
+    // products per UPDATE statement and transaction; defaults to project.pricing.chunk-size
+    @Min(1)
+    private Integer chunkSize;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private String reservationId;
+    private Long productId;
+    private int quantity;
+    private Instant expiresAt;
+    // RESERVED, CONFIRMED or RELEASED
+    private String status;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    // defaults to project.inventory.reservation-ttl-seconds
+    @Min(1)
+    private Long ttlSeconds;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one row of a seller's inventory, selected column by column rather than loaded as a Product
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerProductDTO {
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private Integer quantity;
+    private double price;
+    private double specialPrice;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerProductResponse {
+    private List<SellerProductDTO> content;
+    private Integer pageSize;
+    // pass as afterProductId for the next page; null on the last page
+    private Long nextAfterProductId;
+    private boolean lastPage;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerStatsDTO {
+    private Long productCount;
+    private Long totalStock;
+    // sum of quantity x specialPrice
+    private Double inventoryValue;
+    private Long outOfStockCount;
+}
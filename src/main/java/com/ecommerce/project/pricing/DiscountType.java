@@ -0,0 +1,8 @@
+package com.ecommerce.project.pricing;
+
+// PERCENTAGE sets discount to the rule's value; ABSOLUTE takes a fixed amount off the price (down to zero) and
+// stores the discount as the matching percentage, so specialPrice = price - discount% of price holds either way
+public enum DiscountType {
+    PERCENTAGE,
+    ABSOLUTE
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.project.pricing;
+
+import com.ecommerce.project.payload.RepricingJobDTO;
+import com.ecommerce.project.payload.RepricingRequest;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// progress of one repricing run; written by the repricing thread, read by status requests
+public class RepricingJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final RepricingRequest request;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong productsUpdated = new AtomicLong();
+    private final AtomicLong chunksCompleted = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile long productsMatched;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public RepricingJob(String jobId, RepricingRequest request) {
+        this.jobId = jobId;
+        this.request = request;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public RepricingRequest getRequest() {
+        return request;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void started(long productsMatched) {
+        this.productsMatched = productsMatched;
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    public void chunkCompleted(int updated) {
+        productsUpdated.addAndGet(updated);
+        chunksCompleted.incrementAndGet();
+    }
+
+    public void completed() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    // chunks committed before the failure stay applied
+    public void failed(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public RepricingJobDTO toDTO() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = startedAt == null ? 0 : end.toEpochMilli() - startedAt.toEpochMilli();
+        return new RepricingJobDTO(jobId, status.name(), productsMatched, productsUpdated.get(),
+                chunksCompleted.get(), submittedAt, elapsedMillis, error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Address;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    Optional<Address> findByFingerprint(String fingerprint);
+
+    // both served by idx_addresses_pincode_city
+    List<Address> findByPincodeOrderByAddressId(String pincode);
+
+    List<Address> findByPincodeAndCityIgnoreCaseOrderByAddressId(String pincode, String city);
+}
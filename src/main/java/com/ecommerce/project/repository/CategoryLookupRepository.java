@@ -0,0 +1,11 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+
+import java.util.List;
+
+public interface CategoryLookupRepository {
+
+    // one entry per id, in the same order, null where no category exists; see CategoryLookupRepositoryImpl
+    List<Category> findAllInRequestOrder(List<Long> categoryIds);
+}
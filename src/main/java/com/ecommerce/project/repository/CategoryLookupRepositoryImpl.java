@@ -0,0 +1,28 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// same multi-load as ProductLookupRepositoryImpl: cached categories first, the rest in one select
+public class CategoryLookupRepositoryImpl implements CategoryLookupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Category> findAllInRequestOrder(List<Long> categoryIds) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Category.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .withBatchSize(Math.max(categoryIds.size(), 1))
+                .multiLoad(categoryIds);
+    }
+}
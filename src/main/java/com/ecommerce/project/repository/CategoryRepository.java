@@ -1,9 +1,20 @@
 package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.Category;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryLookupRepository {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category findByCategoryName(String categoryName);
     // we don't need to write the code for this, spring data jpa will create it at run time
+
+    Window<Category> findAllBy(ScrollPosition position, Limit limit, Sort sort);
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.payload.ProductFilter;
+
+import java.util.List;
+
+public interface ProductFacetRepository {
+
+    // one grouped scan per filter; see ProductFacetRepositoryImpl
+    List<CategoryFacetRow> facetRows(ProductFilter filter, List<Double> priceBoundaries);
+
+    // matching: products in the category that pass every filter except the category filter;
+    // priceBuckets: per bucket, products that pass every filter except the specialPrice range
+    record CategoryFacetRow(Long categoryId, long matching, long[] priceBuckets) {
+    }
+}
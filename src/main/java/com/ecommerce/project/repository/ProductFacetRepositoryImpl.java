@@ -0,0 +1,62 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// all facets in a single pass: group the products passing the shared filters by category and count, per group,
+// the rows inside the specialPrice range and the rows in each price bucket with conditional sums
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CategoryFacetRow> facetRows(ProductFilter filter, List<Double> priceBoundaries) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Product> product = query.from(Product.class);
+        Path<Long> categoryId = product.get("category").get("categoryId");
+        Path<Double> specialPrice = product.get("specialPrice");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(categoryId);
+        Predicate inPriceRange = ProductSpecifications.inSpecialPriceRange(filter).toPredicate(product, query, cb);
+        selections.add(countWhere(cb, inPriceRange == null ? cb.conjunction() : inPriceRange));
+        for (int bucket = 0; bucket <= priceBoundaries.size(); bucket++) {
+            List<Predicate> bounds = new ArrayList<>();
+            if (bucket > 0) {
+                bounds.add(cb.greaterThanOrEqualTo(specialPrice, priceBoundaries.get(bucket - 1)));
+            }
+            if (bucket < priceBoundaries.size()) {
+                bounds.add(cb.lessThan(specialPrice, priceBoundaries.get(bucket)));
+            }
+            selections.add(countWhere(cb, cb.and(bounds.toArray(Predicate[]::new))));
+        }
+
+        Predicate shared = ProductSpecifications.matchingAttributes(filter).toPredicate(product, query, cb);
+        query.multiselect(selections).groupBy(categoryId);
+        if (shared != null) {
+            query.where(shared);
+        }
+
+        List<CategoryFacetRow> rows = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            long[] priceBuckets = new long[priceBoundaries.size() + 1];
+            for (int bucket = 0; bucket < priceBuckets.length; bucket++) {
+                priceBuckets[bucket] = ((Number) row[2 + bucket]).longValue();
+            }
+            rows.add(new CategoryFacetRow((Long) row[0], ((Number) row[1]).longValue(), priceBuckets));
+        }
+        return rows;
+    }
+
+    private static Expression<Integer> countWhere(CriteriaBuilder cb, Predicate predicate) {
+        return cb.sum(cb.<Integer>selectCase().when(predicate, 1).otherwise(0));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+
+import java.util.List;
+
+public interface ProductLookupRepository {
+
+    // one entry per id, in the same order, null where no product exists; see ProductLookupRepositoryImpl
+    List<Product> findAllInRequestOrder(List<Long> productIds);
+}
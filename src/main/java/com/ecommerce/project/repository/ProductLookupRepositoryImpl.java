@@ -0,0 +1,30 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Hibernate's multi-load takes ids found in the persistence context or the second-level cache from there and
+// fetches the rest with a single IN (or = any) select, returning the results in the order the ids were given.
+// Neither cache is consulted unless the cache mode and session check are set explicitly
+public class ProductLookupRepositoryImpl implements ProductLookupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findAllInRequestOrder(List<Long> productIds) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .withBatchSize(Math.max(productIds.size(), 1))
+                .multiLoad(productIds);
+    }
+}
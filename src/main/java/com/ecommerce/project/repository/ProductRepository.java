@@ -1,20 +1,110 @@
 package com.ecommerce.project.repository;
 
+import com.ecommerce.project.inventory.StockLevel;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.SellerProductDTO;
+import com.ecommerce.project.stats.ProductStatsRow;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Size;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFacetRepository, ProductLookupRepository, ProductSortRepository {
 
 
     Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageDetails);
 
-    Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+    Window<Product> findByCategory(Category category, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Product> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Slice<Product> findByProductIdGreaterThan(Long productId, Pageable pageDetails);
+
+    @Query("select p.productId from Product p where p.category.categoryId = :categoryId")
+    List<Long> findProductIdsByCategoryId(Long categoryId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p where p.productId > :afterProductId order by p.productId")
+    Stream<Product> streamAllAfter(Long afterProductId);
+
+    @Query("select new com.ecommerce.project.inventory.StockLevel(p.quantity, p.version) from Product p where p.productId = :productId")
+    Optional<StockLevel> findStockLevel(Long productId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.ecommerce.project.stats.ProductStatsRow(p.productId, p.category.categoryId, "
+            + "p.user.userId, p.specialPrice, p.quantity, p.version) from Product p")
+    Stream<ProductStatsRow> streamStatsRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p where p.category.categoryId = :categoryId and p.productId > :afterProductId order by p.productId")
+    Stream<Product> streamByCategoryIdAfter(Long categoryId, Long afterProductId);
+
+    // keyset page of a seller's products as projections, read in idx_products_seller_product order; ordering by
+    // the (constant) seller first lets H2 see that and stop after the limit instead of sorting every match
+    @Query("select new com.ecommerce.project.payload.SellerProductDTO(p.productId, p.productName, p.category.categoryId, "
+            + "p.quantity, p.price, p.specialPrice) from Product p "
+            + "where p.user.userId = :sellerId and p.productId > :afterProductId order by p.user.userId, p.productId")
+    List<SellerProductDTO> findSellerProducts(Long sellerId, Long afterProductId, Limit limit);
+
+    // repricing scope, walked in productId chunks
+    @Query("select p.productId from Product p where p.productId > :afterProductId order by p.productId")
+    List<Long> findProductIdsAfter(Long afterProductId, Limit limit);
+
+    @Query("select p.productId from Product p where p.category.categoryId in :categoryIds and p.productId > :afterProductId "
+            + "order by p.productId")
+    List<Long> findProductIdsByCategoryIdsAfter(Collection<Long> categoryIds, Long afterProductId, Limit limit);
+
+    @Query("select count(p) from Product p where p.category.categoryId in :categoryIds")
+    long countByCategoryIds(Collection<Long> categoryIds);
+
+    // set-based repricing: one statement per chunk, with the version bumped so that conditional writes (If-Match)
+    // and stock reconciliation see the change; the arithmetic matches ProductServiceImpl.specialPrice
+    @Modifying
+    @Query("update Product p set p.discount = :discount, p.specialPrice = p.price - :discount * 0.01 * p.price, "
+            + "p.version = p.version + 1 where p.productId in :productIds")
+    int applyPercentageDiscount(Collection<Long> productIds, double discount);
+
+    // an amount off the price, floored at zero, stored as the equivalent percentage
+    @Modifying
+    @Query("update Product p set "
+            + "p.discount = case when p.price > :amount then :amount * 100.0 / p.price else 100.0 end, "
+            + "p.specialPrice = case when p.price > :amount then p.price - :amount else 0.0 end, "
+            + "p.version = p.version + 1 where p.productId in :productIds")
+    int applyAbsoluteDiscount(Collection<Long> productIds, double amount);
+
+    @Query("select new com.ecommerce.project.stats.ProductStatsRow(p.productId, p.category.categoryId, "
+            + "p.user.userId, p.specialPrice, p.quantity, p.version) from Product p where p.productId in :productIds")
+    List<ProductStatsRow> findStatsRows(Collection<Long> productIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.category.categoryId = :categoryId")
+    int deleteAllByCategoryId(Long categoryId);
+
+    @Query("select p.productName from Product p where p.category.categoryId = :categoryId and p.productName in :productNames")
+    List<String> findExistingProductNames(Long categoryId, Collection<String> productNames);
+
+    // query cache: results are dropped whenever Hibernate writes to the products table
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    boolean existsByCategoryAndProductName(Category category, String productName);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Product findByProductName(@Size(min = 3, message = "must contain at-least 3 characters") String productName);
 }
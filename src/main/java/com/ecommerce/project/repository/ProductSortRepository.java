@@ -0,0 +1,12 @@
+package com.ecommerce.project.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ProductSortRepository {
+
+    // the first limit of the given ids ordered by (order, productId), without binding more than a chunk of ids
+    // per statement; see ProductSortRepositoryImpl
+    List<Long> sortProductIds(List<Long> productIds, Sort.Order order, int limit);
+}
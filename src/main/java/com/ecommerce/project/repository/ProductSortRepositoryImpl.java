@@ -0,0 +1,62 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// keyword matches can outnumber the bind parameters a statement may carry (32767 on PostgreSQL), so the ids go
+// out in chunks. Each chunk returns only its first limit (productId, sort key) rows, already ordered; the chunks
+// are merged here, with nulls last ascending as on PostgreSQL
+public class ProductSortRepositoryImpl implements ProductSortRepository {
+
+    static final int CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> sortProductIds(List<Long> productIds, Sort.Order order, int limit) {
+        if (limit <= 0 || productIds.isEmpty()) {
+            return List.of();
+        }
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        List<Object[]> rows = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + CHUNK_SIZE, productIds.size()));
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<Product> product = query.from(Product.class);
+            Path<Long> productId = product.get("productId");
+            Path<Object> key = product.get(order.getProperty());
+            query.multiselect(productId, key)
+                    .where(productId.in(chunk))
+                    .orderBy(order.isAscending()
+                            ? List.<Order>of(cb.asc(key, false), cb.asc(productId))
+                            : List.<Order>of(cb.desc(key, true), cb.desc(productId)));
+            rows.addAll(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+        }
+        return rows.stream()
+                .sorted(comparator(order))
+                .limit(limit)
+                .map(row -> (Long) row[0])
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object[]> comparator(Sort.Order order) {
+        Comparator<Object[]> ascending = Comparator
+                .comparing((Object[] row) -> (Comparable<Object>) row[1], Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(row -> (Long) row[0]);
+        return order.isAscending() ? ascending : ascending.reversed();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductFilter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+// ProductFilter as JPA predicates, split so the facet query can leave out the filter each facet ignores
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        return Specification.allOf(inCategories(filter), inSpecialPriceRange(filter), matchingAttributes(filter));
+    }
+
+    public static Specification<Product> inCategories(ProductFilter filter) {
+        return (product, query, cb) -> filter.getCategoryId() == null || filter.getCategoryId().isEmpty()
+                ? null
+                : product.get("category").get("categoryId").in(filter.getCategoryId());
+    }
+
+    public static Specification<Product> inSpecialPriceRange(ProductFilter filter) {
+        return (product, query, cb) ->
+                between(cb, product.get("specialPrice"), filter.getMinSpecialPrice(), filter.getMaxSpecialPrice());
+    }
+
+    // price, discount and stock
+    public static Specification<Product> matchingAttributes(ProductFilter filter) {
+        return Specification.allOf(
+                (product, query, cb) -> between(cb, product.get("price"), filter.getMinPrice(), filter.getMaxPrice()),
+                (product, query, cb) -> between(cb, product.get("discount"), filter.getMinDiscount(), filter.getMaxDiscount()),
+                (product, query, cb) -> between(cb, product.get("quantity"), filter.getMinQuantity(), filter.getMaxQuantity()),
+                (product, query, cb) -> filter.getInStock() == null
+                        ? null
+                        : filter.getInStock()
+                        ? cb.greaterThan(product.get("quantity"), 0)
+                        : cb.or(cb.isNull(product.get("quantity")), cb.lessThanOrEqualTo(product.get("quantity"), 0)));
+    }
+
+    private static <T extends Comparable<? super T>> jakarta.persistence.criteria.Predicate between(
+            CriteriaBuilder cb, Path<T> path, T min, T max) {
+        if (min != null && max != null) {
+            return cb.between(path, min, max);
+        }
+        if (min != null) {
+            return cb.greaterThanOrEqualTo(path, min);
+        }
+        if (max != null) {
+            return cb.lessThanOrEqualTo(path, max);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    // just the role names, without loading the user or its collections
+    @Query("select r.rollName from User u join u.roles r where u.userId = :userId")
+    List<AppRole> findRoleNamesByUserId(Long userId);
+}
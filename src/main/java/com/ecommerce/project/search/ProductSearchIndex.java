@@ -0,0 +1,187 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// in-memory inverted index over productName and description, kept current by the product write paths. Writers
+// index after their commit and can arrive out of order, so a product older than the indexed version is ignored
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // term -> (productId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // productId -> terms, so a product can be unindexed without scanning the postings
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    // productId -> version of the indexed document
+    private final Map<Long, Long> documentVersions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentVersions.clear();
+            Slice<Product> batch;
+            long lastProductId = 0;
+            do {
+                batch = productRepository.findByProductIdGreaterThan(lastProductId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("productId")));
+                for (Product product : batch) {
+                    addDocument(product);
+                    lastProductId = product.getProductId();
+                }
+            } while (batch.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            Long indexedVersion = documentVersions.get(product.getProductId());
+            if (indexedVersion != null && product.getVersion() != null && product.getVersion() <= indexedVersion) {
+                return;
+            }
+            removeDocument(product.getProductId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every query token has to match a term exactly or as a prefix; results are ordered best match first
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            int documentCount = documentTerms.size();
+            for (String token : new LinkedHashSet<>(tokens)) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> term : prefixRange(token).entrySet()) {
+                    double idf = Math.log(1 + (double) documentCount / term.getValue().size());
+                    double factor = term.getKey().equals(token) ? 1 : PREFIX_MATCH_FACTOR;
+                    term.getValue().forEach((productId, frequency) ->
+                            tokenScores.merge(productId, frequency * idf * factor, Double::sum));
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // whether search(query) would return the given document text, without touching the index
+    public static boolean matches(String query, String document) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        List<String> terms = tokenize(document);
+        return tokens.stream().allMatch(token -> terms.stream().anyMatch(term -> term.startsWith(token)));
+    }
+
+    public static String document(Product product) {
+        return product.getProductName() + " " + product.getDescription();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private SortedMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private void addDocument(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(product.getProductName()).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(product.getDescription()).forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getProductId(), frequency));
+        documentTerms.put(product.getProductId(), frequencies.keySet());
+        if (product.getVersion() != null) {
+            documentVersions.put(product.getProductId(), product.getVersion());
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        documentVersions.remove(productId);
+        Set<String> terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> productIds = postings.get(term);
+            productIds.remove(productId);
+            if (productIds.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
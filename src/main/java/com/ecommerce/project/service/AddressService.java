@@ -0,0 +1,13 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.AddressDTO;
+
+import java.util.List;
+
+public interface AddressService {
+    AddressDTO addUserAddress(Long userId, AddressDTO addressDTO);
+
+    List<AddressDTO> getUserAddresses(Long userId);
+
+    List<AddressDTO> findByDeliveryZone(String pincode, String city);
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.address.AddressCanonicalizer;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.AddressMapper;
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.AddressDTO;
+import com.ecommerce.project.repository.AddressRepository;
+import com.ecommerce.project.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+
+@Service
+@Timed(value = "ecom.service", description = "Service method latency")
+public class AddressServiceImpl implements AddressService {
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressMapper addressMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // the user is linked to the canonical row for the address, which is only inserted if no user entered it before.
+    // The find-or-insert runs before the linking transaction rather than nested in it, so a request never waits
+    // for a second pooled connection while holding one
+    @Override
+    public AddressDTO addUserAddress(Long userId, AddressDTO addressDTO) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "userId", userId);
+        }
+        Long addressId = canonicalAddressId(addressMapper.toEntity(addressDTO));
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "userId", userId));
+            Address address = addressRepository.getReferenceById(addressId);
+            boolean linked = user.getAddresses().stream()
+                    .anyMatch(userAddress -> userAddress.getAddressId().equals(addressId));
+            if (!linked) {
+                user.getAddresses().add(address);
+            }
+            return addressMapper.toDTO(address);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AddressDTO> getUserAddresses(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "userId", userId));
+        return user.getAddresses().stream().map(addressMapper::toDTO).toList();
+    }
+
+    @Override
+    public List<AddressDTO> findByDeliveryZone(String pincode, String city) {
+        String normalizedPincode = pincode.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        List<Address> addresses = city == null || city.isBlank()
+                ? addressRepository.findByPincodeOrderByAddressId(normalizedPincode)
+                : addressRepository.findByPincodeAndCityIgnoreCaseOrderByAddressId(normalizedPincode, city.strip());
+        return addresses.stream().map(addressMapper::toDTO).toList();
+    }
+
+    // find by fingerprint, or insert in the repository's own short transaction; if a concurrent request inserted
+    // the same address first, the unique fingerprint rejects this insert and the other row is used
+    private Long canonicalAddressId(Address address) {
+        String fingerprint = AddressCanonicalizer.canonicalize(address).getFingerprint();
+        return addressRepository.findByFingerprint(fingerprint).map(Address::getAddressId).orElseGet(() -> {
+            try {
+                return addressRepository.saveAndFlush(address).getAddressId();
+            } catch (DataIntegrityViolationException e) {
+                return addressRepository.findByFingerprint(fingerprint).map(Address::getAddressId).orElseThrow(() -> e);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+
+import java.util.List;
+
+// request checks shared by the product and category multi-get endpoints
+final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    static List<Long> distinctIds(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new APIException("At least one id is required");
+        }
+        if (ids.size() > maxIds) {
+            throw new APIException("At most " + maxIds + " ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new APIException("Ids must be numbers");
+        }
+        return ids.stream().distinct().toList();
+    }
+}
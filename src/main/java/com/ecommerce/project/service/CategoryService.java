@@ -1,13 +1,21 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.CategoryBatchResponse;
+import com.ecommerce.project.payload.CategoryCursorResponse;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
 
+import java.util.List;
+
 
 public interface CategoryService {
-    CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+    CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder, boolean includeStats);
+    CategoryCursorResponse getAllCategoriesByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder, boolean includeStats);
+    CategoryDTO getCategoryById(Long categoryId);
+    CategoryBatchResponse getCategoriesByIds(List<Long> categoryIds, boolean includeStats);
     CategoryDTO createCategory(CategoryDTO categoryDTO);
     CategoryDTO deleteCategory(Long categoryId);
-    CategoryDTO updateCategory(CategoryDTO categoryDTO, Long categoryId);
+    // expectedVersion is the If-Match version, or null for an unconditional write
+    CategoryDTO updateCategory(CategoryDTO categoryDTO, Long categoryId, Long expectedVersion);
 }
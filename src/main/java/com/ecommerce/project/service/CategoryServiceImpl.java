@@ -1,33 +1,67 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.cache.SerializedResponseCache;
 import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.PreconditionFailedException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.inventory.StockLedger;
+import com.ecommerce.project.mapper.CategoryMapper;
 import com.ecommerce.project.model.Category;
+import com.ecommerce.project.pagination.KeysetCursor;
+import com.ecommerce.project.payload.CategoryBatchResponse;
+import com.ecommerce.project.payload.CategoryCursorResponse;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
 import com.ecommerce.project.repository.CategoryRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 
 @Service
+@Timed(value = "ecom.service", description = "Service method latency")
 public class CategoryServiceImpl implements CategoryService{
 
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("categoryId", "categoryName");
+
     @Autowired
     private CategoryRepository categoryRepository;
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+    @Autowired
+    private ProductResponseCache productResponseCache;
+    @Autowired
+    private SerializedResponseCache serializedResponseCache;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+    @Autowired
+    private StockLedger stockLedger;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${project.lookup.max-ids}")
+    private int maxLookupIds;
 
     @Override
-    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder){
+    public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+                                             boolean includeStats){
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
@@ -37,51 +71,120 @@ public class CategoryServiceImpl implements CategoryService{
         if(categoryList.isEmpty()){
             throw new APIException("No categories Found!");
         }
-        List<CategoryDTO> categoryDTOS = categoryList.stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
-                .toList();
-        CategoryResponse categoryResponse = new CategoryResponse();
-        categoryResponse.setContent(categoryDTOS);
-        categoryResponse.setPageNumber(categoryPage.getNumber());
-        categoryResponse.setPageSize(categoryPage.getSize());
-        categoryResponse.setTotalElements(categoryPage.getTotalElements());
-        categoryResponse.setTotalPages(categoryPage.getTotalPages());
-        categoryResponse.setLastPage(categoryPage.isLast());
+        CategoryResponse categoryResponse = categoryMapper.toResponse(categoryPage);
+        if (includeStats) {
+            addStats(categoryResponse.getContent());
+        }
         return categoryResponse;
     }
 
+    @Override
+    public CategoryCursorResponse getAllCategoriesByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder,
+                                                           boolean includeStats){
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new APIException("Cursor paging is not supported for sortBy: " + sortBy);
+        }
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort keysetSort = sortBy.equals("categoryId")
+                ? Sort.by(direction, sortBy)
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "categoryId"));
+        Window<Category> categoryWindow = categoryRepository.findAllBy(KeysetCursor.decode(cursor, keysetSort, Category.class),
+                Limit.of(pageSize), keysetSort);
+        if(categoryWindow.isEmpty()){
+            throw new APIException("No categories Found!");
+        }
+        CategoryCursorResponse categoryCursorResponse = categoryMapper.toCursorResponse(categoryWindow, sortBy, sortOrder);
+        if (includeStats) {
+            addStats(categoryCursorResponse.getContent());
+        }
+        return categoryCursorResponse;
+    }
+
+    @Override
+    public CategoryDTO getCategoryById(Long categoryId) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        return categoryMapper.toDTO(category);
+    }
+
+    // duplicates are loaded once; ids that match no category come back as null entries and in missingIds
+    @Override
+    public CategoryBatchResponse getCategoriesByIds(List<Long> categoryIds, boolean includeStats) {
+        List<Long> distinctIds = BatchLookup.distinctIds(categoryIds, maxLookupIds);
+        Map<Long, Category> found = new HashMap<>();
+        for (Category category : categoryRepository.findAllInRequestOrder(distinctIds)) {
+            if (category != null) {
+                found.put(category.getCategoryId(), category);
+            }
+        }
+        // a DTO per entry, since stats are set on each one
+        List<CategoryDTO> content = categoryIds.stream()
+                .map(categoryId -> found.containsKey(categoryId) ? categoryMapper.toDTO(found.get(categoryId)) : null)
+                .toList();
+        if (includeStats) {
+            addStats(content.stream().filter(Objects::nonNull).toList());
+        }
+        List<Long> missingIds = distinctIds.stream().filter(categoryId -> !found.containsKey(categoryId)).toList();
+        return new CategoryBatchResponse(content, missingIds);
+    }
+
+    // read from the maintained index, never aggregated from the products table
+    private void addStats(List<CategoryDTO> categoryDTOS) {
+        categoryDTOS.forEach(categoryDTO -> categoryDTO.setStats(categoryStatsIndex.get(categoryDTO.getCategoryId())));
+    }
+
     @Override
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         System.out.println("@category = " + category);
         Category categoryFromDB = categoryRepository.findByCategoryName(category.getCategoryName());
         if(categoryFromDB != null){
             throw new APIException("Category with the name " + category.getCategoryName() + " already exists!!!");
         }
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        serializedResponseCache.invalidateCategories();
+        return categoryMapper.toDTO(savedCategory);
     }
 
+    // the rows go in one transaction, so a failed category delete leaves its products in place; the in-memory
+    // indexes, the ledger and the caches are only touched once that transaction has committed
     @Override
     public CategoryDTO deleteCategory(Long categoryId){
-        Optional<Category> savedCategoryOptional = categoryRepository.findById(categoryId);
-        Category savedCategory = savedCategoryOptional
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
-        categoryRepository.delete(savedCategory);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        DeletedCategory deleted = transactionTemplate.execute(status -> {
+            Category savedCategory = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+            List<Long> productIds = productRepository.findProductIdsByCategoryId(categoryId);
+            // one bulk delete instead of loading the products collection and cascading a delete per row
+            productRepository.deleteAllByCategoryId(categoryId);
+            categoryRepository.delete(savedCategory);
+            return new DeletedCategory(categoryMapper.toDTO(savedCategory), productIds);
+        });
+        deleted.productIds().forEach(productSearchIndex::remove);
+        deleted.productIds().forEach(categoryStatsIndex::remove);
+        deleted.productIds().forEach(stockLedger::forget);
+        productResponseCache.invalidateCategory(categoryId);
+        serializedResponseCache.invalidateCategories();
+        return deleted.category();
     }
 
     @Override
-    public CategoryDTO updateCategory(CategoryDTO categoryDTO, Long categoryId){
-        Category category = modelMapper.map(categoryDTO, Category.class);
-        Category categoryFromDB = categoryRepository.findByCategoryName(category.getCategoryName());
+    public CategoryDTO updateCategory(CategoryDTO categoryDTO, Long categoryId, Long expectedVersion){
+        Category categoryFromDB = categoryRepository.findByCategoryName(categoryDTO.getCategoryName());
         if(categoryFromDB != null){
-            throw new APIException("Category with the name " + category.getCategoryName() + " already exists!!!");
+            throw new APIException("Category with the name " + categoryDTO.getCategoryName() + " already exists!!!");
         }
         Category savedCategory = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
-        category.setCategoryId(categoryId);
-        savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        if (expectedVersion != null && !expectedVersion.equals(savedCategory.getVersion())) {
+            throw new PreconditionFailedException("Category", "categoryId", categoryId, expectedVersion);
+        }
+        // renamed in place, so the write carries the version that was read and a concurrent rename fails it
+        savedCategory.setCategoryName(categoryDTO.getCategoryName());
+        savedCategory = categoryRepository.save(savedCategory);
+        serializedResponseCache.invalidateCategories();
+        return categoryMapper.toDTO(savedCategory);
+    }
+
+    private record DeletedCategory(CategoryDTO category, List<Long> productIds) {
     }
 }
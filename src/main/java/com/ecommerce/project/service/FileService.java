@@ -3,7 +3,14 @@ package com.ecommerce.project.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Map;
 
 public interface FileService {
-    String uploadImage(String path, MultipartFile file) throws IOException;
+    // stores the upload under its content hash and queues the resized variants; returns the stored file name
+    String uploadImage(MultipartFile file) throws IOException;
+
+    // "original" plus one entry per ImageVariant; the variants resolve once isProcessing(fileName) is false
+    Map<String, String> imageUrls(String fileName);
+
+    boolean isProcessing(String fileName);
 }
@@ -1,35 +1,248 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.image.ImageVariant;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
+@Timed(value = "ecom.service", description = "Service method latency")
 public class FileServiceImpl implements FileService{
 
+    private static final Logger log = LoggerFactory.getLogger(FileServiceImpl.class);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+    private static final Set<PosixFilePermission> PUBLISHED_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+
+    private final Path directory;
+    private final Path uploadDirectory;
+    private final String baseUrl;
+    private final ThreadPoolExecutor executor;
+    // stored file name -> variant generation still queued or running
+    private final Map<String, Future<?>> processing = new ConcurrentHashMap<>();
+
+    public FileServiceImpl(@Value("${project.image}") String path,
+                           @Value("${project.image.base-url}") String baseUrl,
+                           @Value("${project.image.processing-threads}") int threads,
+                           @Value("${project.image.queue-capacity}") int queueCapacity) {
+        this.directory = Path.of(path);
+        this.uploadDirectory = directory.resolve(".upload");
+        this.baseUrl = baseUrl;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    public void createDirectories() throws IOException {
+        Files.createDirectories(uploadDirectory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
     @Override
-    public String uploadImage(String path, MultipartFile file) throws IOException {
-        String originalFileName = file.getOriginalFilename();
-        // Generate a unique file name
-        String randomId = UUID.randomUUID().toString();
-        // mat.jpg --> 1234 --> 1234.jpg
-        String fileName = randomId.concat(originalFileName.substring(originalFileName.lastIndexOf('.')));
-        String filePath = path + File.separator + fileName;
-
-        // Check if path exist and create
-        File folder = new File(path);
-        if (!folder.exists())
-            folder.mkdir();
-
-        // Upload to server
-        Files.copy(file.getInputStream(), Paths.get(filePath));
-
-        // returning file name
+    public String uploadImage(MultipartFile file) throws IOException {
+        String extension = extension(file.getOriginalFilename());
+        // stream to a temp file through a fixed buffer, hashing on the way; nothing holds the whole upload
+        Path upload = Files.createTempFile(uploadDirectory, "upload-", "." + extension);
+        String fileName;
+        try {
+            fileName = sha256(file, upload) + "." + extension;
+            Path target = directory.resolve(fileName);
+            if (Files.exists(target)) {
+                // same bytes were uploaded before
+                Files.delete(upload);
+            } else {
+                publish(upload, target);
+            }
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+        if (!variantsExist(fileName)) {
+            processing.computeIfAbsent(fileName, this::submitVariants);
+        }
         return fileName;
     }
+
+    @Override
+    public Map<String, String> imageUrls(String fileName) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        urls.put("original", baseUrl + fileName);
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.suffix(), baseUrl + variant.fileName(fileName));
+        }
+        return urls;
+    }
+
+    @Override
+    public boolean isProcessing(String fileName) {
+        return processing.containsKey(fileName);
+    }
+
+    private Future<?> submitVariants(String fileName) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    writeVariants(fileName);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not generate variants for image {}", fileName, e);
+                } finally {
+                    processing.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the original is stored and served either way; variants are generated again on the next upload
+            log.warn("Image processing queue is full, skipping variants for {}", fileName);
+            return null;
+        }
+    }
+
+    // decoded once for the largest variant; each smaller variant is scaled down from the previous one
+    private void writeVariants(String fileName) throws IOException {
+        Path original = directory.resolve(fileName);
+        String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+        boolean opaque = !format.equals("png") && !format.equals("gif");
+        List<ImageVariant> variants = Arrays.stream(ImageVariant.values())
+                .sorted(Comparator.comparingInt(ImageVariant::maxDimension).reversed())
+                .toList();
+        BufferedImage image = read(original, variants.get(0).maxDimension());
+        if (image == null) {
+            throw new IOException("Unreadable image");
+        }
+        for (ImageVariant variant : variants) {
+            image = resize(image, variant.maxDimension(), opaque);
+            // written beside the target and moved into place, so a half-written variant is never served
+            Path temp = Files.createTempFile(uploadDirectory, variant.suffix() + "-", "." + format);
+            try {
+                if (!ImageIO.write(image, format, temp.toFile())) {
+                    throw new IOException("No image writer for " + format);
+                }
+                publish(temp, directory.resolve(variant.fileName(fileName)));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // decodes with source subsampling so a large original never becomes a full-resolution raster
+    private static BufferedImage read(Path file, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int maxDimension, boolean opaque) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage resized = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // temp files are created owner-only; published images are world-readable like any other static file
+    private static void publish(Path temp, Path target) throws IOException {
+        if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(temp, PUBLISHED_PERMISSIONS);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean variantsExist(String fileName) {
+        return Arrays.stream(ImageVariant.values())
+                .allMatch(variant -> Files.exists(directory.resolve(variant.fileName(fileName))));
+    }
+
+    private static String sha256(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        try (InputStream inputStream = file.getInputStream();
+             ReadableByteChannel in = Channels.newChannel(inputStream);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String extension(String originalFileName) {
+        int dot = originalFileName == null ? -1 : originalFileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : originalFileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (!EXTENSIONS.contains(extension)) {
+            throw new APIException("Unsupported image type, expected one of " + new TreeSet<>(EXTENSIONS));
+        }
+        return extension;
+    }
 }
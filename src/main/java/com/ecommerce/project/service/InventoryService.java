@@ -0,0 +1,12 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.payload.ReservationRequest;
+import com.ecommerce.project.payload.StockDTO;
+
+public interface InventoryService {
+    ReservationDTO reserve(Long productId, ReservationRequest reservationRequest);
+    ReservationDTO confirm(String reservationId);
+    ReservationDTO release(String reservationId);
+    StockDTO getStock(Long productId);
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.InsufficientStockException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.inventory.StockLedger;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.payload.ReservationRequest;
+import com.ecommerce.project.payload.StockDTO;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// reservations live in memory: holding units never touches the database, only confirmed units are
+// written back (see StockLedger.reconcile)
+@Service
+@Timed(value = "ecom.service", description = "Service method latency")
+public class InventoryServiceImpl implements InventoryService {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Value("${project.inventory.reservation-ttl-seconds}")
+    private long defaultTtlSeconds;
+
+    @Value("${project.inventory.max-reservation-ttl-seconds}")
+    private long maxTtlSeconds;
+
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    @Override
+    public ReservationDTO reserve(Long productId, ReservationRequest reservationRequest) {
+        long ttlSeconds = reservationRequest.getTtlSeconds() == null ? defaultTtlSeconds : reservationRequest.getTtlSeconds();
+        if (ttlSeconds > maxTtlSeconds) {
+            throw new APIException("ttlSeconds must not exceed " + maxTtlSeconds);
+        }
+        int quantity = reservationRequest.getQuantity();
+        if (!stockLedger.reserve(productId, quantity)) {
+            throw new InsufficientStockException(productId, quantity, stockLedger.available(productId));
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity,
+                Instant.now().plus(Duration.ofSeconds(ttlSeconds)));
+        reservations.put(reservation.reservationId(), reservation);
+        return toDTO(reservation, "RESERVED");
+    }
+
+    // whichever of confirm, release and expiry removes the reservation first applies it; the others see
+    // it as gone, so units are never both sold and returned
+    @Override
+    public ReservationDTO confirm(String reservationId) {
+        Reservation reservation = take(reservationId);
+        stockLedger.confirm(reservation.productId(), reservation.quantity());
+        return toDTO(reservation, "CONFIRMED");
+    }
+
+    @Override
+    public ReservationDTO release(String reservationId) {
+        Reservation reservation = take(reservationId);
+        stockLedger.release(reservation.productId(), reservation.quantity());
+        return toDTO(reservation, "RELEASED");
+    }
+
+    @Override
+    public StockDTO getStock(Long productId) {
+        return new StockDTO(productId, stockLedger.available(productId), stockLedger.reserved(productId));
+    }
+
+    @Scheduled(fixedDelayString = "${project.inventory.expiry-interval-ms}")
+    public void releaseExpired() {
+        Instant now = Instant.now();
+        reservations.values().forEach(reservation -> {
+            if (reservation.expiresAt().isBefore(now) && reservations.remove(reservation.reservationId(), reservation)) {
+                stockLedger.release(reservation.productId(), reservation.quantity());
+            }
+        });
+    }
+
+    private Reservation take(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ResourceNotFoundException("Reservation", "reservationId", reservationId);
+        }
+        if (reservation.expiresAt().isBefore(Instant.now())) {
+            // expired but not swept yet
+            stockLedger.release(reservation.productId(), reservation.quantity());
+            throw new ResourceNotFoundException("Reservation", "reservationId", reservationId);
+        }
+        return reservation;
+    }
+
+    private static ReservationDTO toDTO(Reservation reservation, String status) {
+        return new ReservationDTO(reservation.reservationId(), reservation.productId(), reservation.quantity(),
+                reservation.expiresAt(), status);
+    }
+
+    private record Reservation(String reservationId, Long productId, int quantity, Instant expiresAt) {
+    }
+}
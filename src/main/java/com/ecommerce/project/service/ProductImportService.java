@@ -0,0 +1,10 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.ProductImportReport;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface ProductImportService {
+    ProductImportReport importProducts(MultipartFile file, Integer batchSize) throws IOException;
+}
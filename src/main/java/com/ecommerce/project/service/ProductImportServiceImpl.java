@@ -0,0 +1,317 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ImportRowError;
+import com.ecommerce.project.payload.ProductImportReport;
+import com.ecommerce.project.payload.ProductImportRow;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "ecom.service", description = "Service method latency")
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${project.import.batch-size}")
+    private int defaultBatchSize;
+
+    @Override
+    public ProductImportReport importProducts(MultipartFile file, Integer batchSize) throws IOException {
+        int chunkSize = batchSize == null ? defaultBatchSize : batchSize;
+        if (chunkSize < 1) {
+            throw new APIException("batchSize must be at least 1");
+        }
+        boolean csv = isCsv(file);
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> header = null;
+            if (csv) {
+                String headerLine = reader.readLine();
+                if (headerLine == null) {
+                    throw new APIException("Import file is empty");
+                }
+                lineNumber++;
+                header = csvHeader(headerLine);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.received++;
+                ProductImportRow row;
+                try {
+                    row = csv ? csvRow(header, line) : objectMapper.readValue(line, ProductImportRow.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    run.reject(lineNumber, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+                String problem = validate(row, run);
+                if (problem != null) {
+                    run.reject(lineNumber, problem);
+                    continue;
+                }
+                chunk.add(new PendingRow(lineNumber, row));
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunk, chunkSize, run);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, chunkSize, run);
+        }
+        if (run.imported > 0) {
+            productResponseCache.invalidateAll();
+        }
+
+        run.errors.sort(Comparator.comparingLong(ImportRowError::getRow));
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = run.received == 0 ? 0 : run.received / (elapsedNanos / 1_000_000_000.0);
+        return new ProductImportReport(run.received, run.imported, run.rejected, run.errors,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private boolean isCsv(MultipartFile file) {
+        String fileName = Objects.requireNonNullElse(file.getOriginalFilename(), "").toLowerCase(Locale.ROOT);
+        String contentType = Objects.requireNonNullElse(file.getContentType(), "");
+        if (fileName.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return true;
+        }
+        if (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") || contentType.startsWith("application/x-ndjson")) {
+            return false;
+        }
+        throw new APIException("Unsupported import format, expected .csv or .ndjson");
+    }
+
+    // bean validation, category existence and duplicates within the file; duplicates against the database are
+    // checked per chunk in insertChunk
+    private String validate(ProductImportRow row, ImportRun run) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!run.knownCategories.computeIfAbsent(row.getCategoryId(), categoryRepository::existsById)) {
+            return "Category not found with categoryId: " + row.getCategoryId();
+        }
+        if (!run.namesInFile.add(row.getCategoryId() + "/" + row.getProductName())) {
+            return "Duplicate product in file: " + row.getProductName();
+        }
+        return null;
+    }
+
+    private void insertChunk(List<PendingRow> chunk, int batchSize, ImportRun run) {
+        List<Product> saved = new ArrayList<>(chunk.size());
+        List<PendingRow> duplicates = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Set<String>> existingNames = existingNames(chunk);
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (PendingRow pending : chunk) {
+                    ProductImportRow row = pending.row();
+                    if (existingNames.get(row.getCategoryId()).contains(row.getProductName())) {
+                        duplicates.add(pending);
+                        continue;
+                    }
+                    Product product = toProduct(row);
+                    entityManager.persist(product);
+                    saved.add(product);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (DataAccessException | PersistenceException e) {
+            // the flush goes through the EntityManager, so Hibernate's exceptions arrive untranslated. One row the
+            // database refuses rolls back the whole chunk; retried row by row, only that row is rejected
+            if (chunk.size() > 1) {
+                for (PendingRow pending : chunk) {
+                    insertChunk(List.of(pending), batchSize, run);
+                }
+                return;
+            }
+            run.reject(chunk.get(0).lineNumber(), "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return;
+        }
+        for (PendingRow duplicate : duplicates) {
+            run.reject(duplicate.lineNumber(), "Product already exists: " + duplicate.row().getProductName());
+        }
+        saved.forEach(productSearchIndex::index);
+        saved.forEach(categoryStatsIndex::index);
+        run.imported += saved.size();
+    }
+
+    // one indexed (category_id, product_name) lookup per category in the chunk
+    private Map<Long, Set<String>> existingNames(List<PendingRow> chunk) {
+        Map<Long, List<String>> namesByCategory = chunk.stream()
+                .map(PendingRow::row)
+                .collect(Collectors.groupingBy(ProductImportRow::getCategoryId,
+                        Collectors.mapping(ProductImportRow::getProductName, Collectors.toList())));
+        Map<Long, Set<String>> existingNames = new HashMap<>();
+        namesByCategory.forEach((categoryId, names) -> existingNames.put(categoryId,
+                new HashSet<>(productRepository.findExistingProductNames(categoryId, names))));
+        return existingNames;
+    }
+
+    private Product toProduct(ProductImportRow row) {
+        Product product = new Product();
+        product.setProductName(row.getProductName());
+        product.setDescription(row.getDescription());
+        product.setImage("default.png");
+        product.setQuantity(row.getQuantity());
+        product.setPrice(row.getPrice());
+        product.setDiscount(row.getDiscount() == null ? 0 : row.getDiscount());
+        product.setSpecialPrice(product.getPrice() - (product.getDiscount() * (0.01) * product.getPrice()));
+        product.setCategory(entityManager.getReference(Category.class, row.getCategoryId()));
+        return product;
+    }
+
+    private Map<String, Integer> csvHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        for (String required : List.of("categoryId", "productName", "description", "price")) {
+            if (!header.containsKey(required)) {
+                throw new APIException("CSV header is missing column: " + required);
+            }
+        }
+        return header;
+    }
+
+    private ProductImportRow csvRow(Map<String, Integer> header, String line) {
+        List<String> values = parseCsvLine(line);
+        ProductImportRow row = new ProductImportRow();
+        row.setCategoryId(parse(csvValue(header, values, "categoryId"), Long::valueOf));
+        row.setProductName(csvValue(header, values, "productName"));
+        row.setDescription(csvValue(header, values, "description"));
+        row.setQuantity(parse(csvValue(header, values, "quantity"), Integer::valueOf));
+        row.setPrice(parse(csvValue(header, values, "price"), Double::valueOf));
+        row.setDiscount(parse(csvValue(header, values, "discount"), Double::valueOf));
+        return row;
+    }
+
+    private static String csvValue(Map<String, Integer> header, List<String> values, String column) {
+        Integer index = header.get(column);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null || value.isBlank() ? null : parser.apply(value.trim());
+    }
+
+    // RFC 4180 fields on a single line: commas inside quotes, "" as an escaped quote
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(long lineNumber, ProductImportRow row) {
+    }
+
+    private static class ImportRun {
+        private long received;
+        private long imported;
+        private long rejected;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Map<Long, Boolean> knownCategories = new HashMap<>();
+        private final Set<String> namesInFile = new HashSet<>();
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(lineNumber, message));
+            }
+        }
+    }
+}
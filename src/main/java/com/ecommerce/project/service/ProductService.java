@@ -1,23 +1,51 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.payload.ProductBatchResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductImageResponse;
+import com.ecommerce.project.payload.ProductPatch;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.SellerProductResponse;
+import com.ecommerce.project.payload.SellerStatsDTO;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface ProductService {
     ProductDTO addProduct(Long categoryId, ProductDTO productDTO);
 
     ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    ProductResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+
     ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    ProductDTO getProductById(Long productId);
+
+    ProductBatchResponse getProductsByIds(List<Long> productIds);
+
+    ProductCursorResponse getAllProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder);
+
+    ProductCursorResponse searchByCategoryByCursor(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder);
+
     ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
-    ProductDTO updateProduct(Long productId, ProductDTO productDTO);
+    SellerProductResponse getSellerProducts(Long sellerId, Long afterProductId, Integer pageSize);
+
+    SellerStatsDTO getSellerStats(Long sellerId);
+
+    StreamingResponseBody exportProducts(Long categoryId, Long afterProductId);
+
+    // expectedVersion is the If-Match version, or null for an unconditional write
+    ProductDTO updateProduct(Long productId, ProductDTO productDTO, Long expectedVersion);
+
+    ProductDTO patchProduct(Long productId, ProductPatch productPatch, Long expectedVersion);
 
     ProductDTO deleteProduct(Long productId);
 
-    ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException;
+    ProductImageResponse updateProductImage(Long productId, MultipartFile image) throws IOException;
 }
@@ -1,30 +1,68 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.ProductCacheKey;
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.PreconditionFailedException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.inventory.StockLedger;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.metrics.ResponseRowsAdvice;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.pagination.KeysetCursor;
+import com.ecommerce.project.payload.ProductBatchResponse;
+import com.ecommerce.project.payload.ProductCursorResponse;
+import com.ecommerce.project.payload.CategoryFacet;
+import com.ecommerce.project.payload.PriceFacet;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFacets;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductImageResponse;
+import com.ecommerce.project.payload.ProductPatch;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.SellerProductDTO;
+import com.ecommerce.project.payload.SellerProductResponse;
+import com.ecommerce.project.payload.SellerStatsDTO;
 import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductFacetRepository;
 import com.ecommerce.project.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.repository.ProductSpecifications;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Stream;
 
 
 @Service
+@Timed(value = "ecom.service", description = "Service method latency")
 public class ProductServiceImpl implements ProductService{
 
+    // keyset paging needs non-null sort keys
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("productId", "productName", "price", "discount", "specialPrice");
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -32,13 +70,43 @@ public class ProductServiceImpl implements ProductService{
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
 
     @Autowired
     private FileService fileService;
 
-    @Value("${project.image}")
-    private String path;
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${project.products.facets.price-boundaries}")
+    private List<Double> facetPriceBoundaries;
+
+    @Value("${project.lookup.max-ids}")
+    private int maxLookupIds;
 
     @Override
     public ProductDTO addProduct(Long categoryId, ProductDTO productDTO) {
@@ -51,24 +119,18 @@ public class ProductServiceImpl implements ProductService{
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        boolean isProductNotPresent = true;
-
-        List<Product> products = category.getProducts();
-        for (Product value : products) {
-            if (value.getProductName().equals(productDTO.getProductName())) {
-                isProductNotPresent = false;
-                break;
-            }
-        }
+        boolean isProductNotPresent = !productRepository.existsByCategoryAndProductName(category, productDTO.getProductName());
 
         if(isProductNotPresent){
-            Product product = modelMapper.map(productDTO, Product.class);
+            Product product = productMapper.toEntity(productDTO);
             product.setImage("default.png");
             product.setCategory(category);
-            double specialPrice = product.getPrice() - (product.getDiscount() * (0.01) * product.getPrice());
-            product.setSpecialPrice((specialPrice));
+            product.setSpecialPrice(specialPrice(product.getPrice(), product.getDiscount()));
             Product savedProduct = productRepository.save(product);
-            return modelMapper.map(savedProduct, ProductDTO.class);
+            productSearchIndex.index(savedProduct);
+            categoryStatsIndex.index(savedProduct);
+            productResponseCache.invalidateProduct(categoryId, ProductSearchIndex.document(savedProduct));
+            return productMapper.toDTO(savedProduct);
         }else{
             throw new APIException("Product already exists!!");
         }
@@ -77,6 +139,11 @@ public class ProductServiceImpl implements ProductService{
 
     @Override
     public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return productResponseCache.get(ProductCacheKey.all(pageNumber, pageSize, sortBy, sortOrder),
+                () -> loadAllProducts(pageNumber, pageSize, sortBy, sortOrder));
+    }
+
+    private ProductResponse loadAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
@@ -86,21 +153,68 @@ public class ProductServiceImpl implements ProductService{
         if(productList.isEmpty()){
             throw new APIException("No categories Found!");
         }
-        List<ProductDTO> productDTOList = productList.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
-        productResponse.setContent(productDTOList);
+        return productMapper.toResponse(productPage);
+    }
+
+    @Override
+    public ProductResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        checkRange("price", filter.getMinPrice(), filter.getMaxPrice());
+        checkRange("specialPrice", filter.getMinSpecialPrice(), filter.getMaxSpecialPrice());
+        checkRange("discount", filter.getMinDiscount(), filter.getMaxDiscount());
+        checkRange("quantity", filter.getMinQuantity(), filter.getMaxQuantity());
+        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+        // an empty page is a valid answer here: the facets still tell the client how to widen the filter
+        Page<Product> productPage = productRepository.findAll(ProductSpecifications.matching(filter), pageDetails);
+        ProductResponse productResponse = productMapper.toResponse(productPage);
+        if (filter.isFacets()) {
+            productResponse.setFacets(facets(filter));
+        }
         return productResponse;
     }
 
+    private ProductFacets facets(ProductFilter filter) {
+        List<ProductFacetRepository.CategoryFacetRow> rows = productRepository.facetRows(filter, facetPriceBoundaries);
+        Set<Long> selectedCategories = filter.getCategoryId() == null || filter.getCategoryId().isEmpty()
+                ? null
+                : new HashSet<>(filter.getCategoryId());
+        long[] bucketCounts = new long[facetPriceBoundaries.size() + 1];
+        List<CategoryFacet> categoryFacets = new ArrayList<>();
+        for (ProductFacetRepository.CategoryFacetRow row : rows) {
+            if (row.matching() > 0) {
+                categoryFacets.add(new CategoryFacet(row.categoryId(), row.matching()));
+            }
+            if (selectedCategories == null || selectedCategories.contains(row.categoryId())) {
+                for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                    bucketCounts[bucket] += row.priceBuckets()[bucket];
+                }
+            }
+        }
+        categoryFacets.sort(Comparator.comparing(CategoryFacet::getCategoryId));
+        List<PriceFacet> priceFacets = new ArrayList<>();
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            priceFacets.add(new PriceFacet(bucket == 0 ? null : facetPriceBoundaries.get(bucket - 1),
+                    bucket == facetPriceBoundaries.size() ? null : facetPriceBoundaries.get(bucket),
+                    bucketCounts[bucket]));
+        }
+        return new ProductFacets(priceFacets, categoryFacets);
+    }
+
+    private static <T extends Comparable<T>> void checkRange(String field, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new APIException("Invalid " + field + " range: min is greater than max");
+        }
+    }
+
     @Override
     public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return productResponseCache.get(ProductCacheKey.category(categoryId, pageNumber, pageSize, sortBy, sortOrder),
+                () -> loadProductsByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder));
+    }
+
+    private ProductResponse loadProductsByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
@@ -115,52 +229,195 @@ public class ProductServiceImpl implements ProductService{
         if(productList.isEmpty()){
             throw new APIException(category.getCategoryName() + " category does not have any products");
         }
-        List<ProductDTO> productDTOList = productList.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOList);
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
-        return productResponse;
+        return productMapper.toResponse(productPage);
+    }
+
+    @Override
+    public ProductDTO getProductById(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        return productMapper.toDTO(product);
+    }
+
+    // duplicates are loaded once; ids that match no product come back as null entries and in missingIds
+    @Override
+    public ProductBatchResponse getProductsByIds(List<Long> productIds) {
+        List<Long> distinctIds = BatchLookup.distinctIds(productIds, maxLookupIds);
+        Map<Long, ProductDTO> found = new HashMap<>();
+        for (Product product : productRepository.findAllInRequestOrder(distinctIds)) {
+            if (product != null) {
+                found.put(product.getProductId(), productMapper.toDTO(product));
+            }
+        }
+        List<ProductDTO> content = productIds.stream().map(found::get).toList();
+        List<Long> missingIds = distinctIds.stream().filter(productId -> !found.containsKey(productId)).toList();
+        return new ProductBatchResponse(content, missingIds);
+    }
+
+    @Override
+    public ProductCursorResponse getAllProductsByCursor(String cursor, Integer pageSize, String sortBy, String sortOrder) {
+        Sort keysetSort = keysetSort(sortBy, sortOrder);
+        Window<Product> productWindow = productRepository.findAllBy(KeysetCursor.decode(cursor, keysetSort, Product.class),
+                Limit.of(pageSize), keysetSort);
+        if(productWindow.isEmpty()){
+            throw new APIException("No products Found!");
+        }
+        return productMapper.toCursorResponse(productWindow, sortBy, sortOrder);
+    }
+
+    @Override
+    public ProductCursorResponse searchByCategoryByCursor(Long categoryId, String cursor, Integer pageSize, String sortBy, String sortOrder) {
+
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Category", "categoryId", categoryId));
+
+        Sort keysetSort = keysetSort(sortBy, sortOrder);
+        Window<Product> productWindow = productRepository.findByCategory(category,
+                KeysetCursor.decode(cursor, keysetSort, Product.class), Limit.of(pageSize), keysetSort);
+        if(productWindow.isEmpty()){
+            throw new APIException(category.getCategoryName() + " category does not have any products");
+        }
+        return productMapper.toCursorResponse(productWindow, sortBy, sortOrder);
+    }
+
+    // (sortBy, productId) so that every row has a unique position
+    private Sort keysetSort(String sortBy, String sortOrder) {
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new APIException("Cursor paging is not supported for sortBy: " + sortBy);
+        }
+        Sort.Direction direction = sortOrder.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals("productId") ? sort : sort.and(Sort.by(direction, "productId"));
     }
 
     @Override
     public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+        return productResponseCache.get(ProductCacheKey.keyword(keyword, pageNumber, pageSize, sortBy, sortOrder),
+                () -> loadProductsByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder));
+    }
 
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository.findByProductNameLikeIgnoreCase("%" +keyword + "%", pageDetails);
+    private ProductResponse loadProductsByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+
+        List<Long> matchingIds = productSearchIndex.search(keyword);
+        Pageable pageDetails = PageRequest.of(pageNumber, pageSize);
+        int toIndex = (int) Math.min(pageDetails.getOffset() + pageSize, matchingIds.size());
+        // the index already knows the relevance and productId orders; any other sort reads the sort keys of the
+        // matches in chunks and keeps only the ids up to the requested page, so only that page is loaded
+        List<Long> orderedIds;
+        if (sortBy.equals(AppConstants.SORT_BY_RELEVANCE)) {
+            orderedIds = matchingIds;
+        } else if (sortBy.equals("productId")) {
+            orderedIds = matchingIds.stream()
+                    .sorted(sortOrder.equalsIgnoreCase("asc") ? Comparator.naturalOrder() : Comparator.reverseOrder())
+                    .toList();
+        } else {
+            Sort.Direction direction = sortOrder.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+            orderedIds = productRepository.sortProductIds(matchingIds, new Sort.Order(direction, sortBy), toIndex);
+        }
+        toIndex = Math.min(toIndex, orderedIds.size());
+        int fromIndex = (int) Math.min(pageDetails.getOffset(), toIndex);
+        Page<Product> productPage = new PageImpl<>(findAllInOrder(orderedIds.subList(fromIndex, toIndex)),
+                pageDetails, matchingIds.size());
         List<Product> productList = productPage.getContent();
 
         if(productList.isEmpty()){
             throw new APIException("Products not found with keyword: " + keyword);
         }
 
-        List<ProductDTO> productDTOList = productList.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+        return productMapper.toResponse(productPage);
+    }
+
+    private List<Product> findAllInOrder(List<Long> productIds) {
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            productsById.put(product.getProductId(), product);
+        }
+        return productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
-        ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOList);
-        productResponse.setPageNumber(productPage.getNumber());
-        productResponse.setPageSize(productPage.getSize());
-        productResponse.setTotalElements(productPage.getTotalElements());
-        productResponse.setTotalPages(productPage.getTotalPages());
-        productResponse.setLastPage(productPage.isLast());
-        return productResponse;
     }
 
+    // keyset paging on productId, so page 2,000 of a 100k-SKU seller costs the same as page 1; one row more
+    // than the page is read to tell whether another page follows
     @Override
-    public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
+    public SellerProductResponse getSellerProducts(Long sellerId, Long afterProductId, Integer pageSize) {
+        if (pageSize < 1) {
+            throw new APIException("pageSize must be at least 1");
+        }
+        List<SellerProductDTO> rows = productRepository.findSellerProducts(sellerId, afterProductId, Limit.of(pageSize + 1));
+        if (rows.isEmpty() && afterProductId == 0) {
+            checkSeller(sellerId);
+        }
+        boolean lastPage = rows.size() <= pageSize;
+        List<SellerProductDTO> content = lastPage ? rows : rows.subList(0, pageSize);
+        Long nextAfterProductId = lastPage ? null : content.get(content.size() - 1).getProductId();
+        return new SellerProductResponse(content, content.size(), nextAfterProductId, lastPage);
+    }
 
-        Product product = modelMapper.map(productDTO, Product.class);
-        Product productFromDB = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+    @Override
+    public SellerStatsDTO getSellerStats(Long sellerId) {
+        SellerStatsDTO sellerStatsDTO = categoryStatsIndex.getSeller(sellerId);
+        if (sellerStatsDTO.getProductCount() == 0) {
+            checkSeller(sellerId);
+        }
+        return sellerStatsDTO;
+    }
+
+    // only asked when a seller has no products, to tell an empty inventory from an unknown seller
+    private void checkSeller(Long sellerId) {
+        if (!userRepository.existsById(sellerId)) {
+            throw new ResourceNotFoundException("Seller", "sellerId", sellerId);
+        }
+    }
+
+    @Override
+    public StreamingResponseBody exportProducts(Long categoryId, Long afterProductId) {
+        // checked up front so a missing category is still a 404 rather than a truncated stream
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+        }
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Product> products = categoryId == null
+                    ? productRepository.streamAllAfter(afterProductId)
+                    : productRepository.streamByCategoryIdAfter(categoryId, afterProductId)) {
+                writeNdjson(products, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // one ProductDTO per line; each row is detached once written so the persistence context stays small
+    private void writeNdjson(Stream<Product> products, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int rows = 0;
+        for (Iterator<Product> iterator = products.iterator(); iterator.hasNext(); ) {
+            Product product = iterator.next();
+            writer.writeValue(generator, productMapper.toDTO(product));
+            generator.writeRaw('\n');
+            entityManager.detach(product);
+            if (++rows % EXPORT_FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+        ResponseRowsAdvice.record(meterRegistry, "/api/public/products/export", rows);
+    }
+
+    @Override
+    public ProductDTO updateProduct(Long productId, ProductDTO productDTO, Long expectedVersion) {
+
+        Product product = productMapper.toEntity(productDTO);
+        Product productFromDB = findForUpdate(productId, expectedVersion);
+        String previousDocument = ProductSearchIndex.document(productFromDB);
+        Integer previousQuantity = productFromDB.getQuantity();
 
         // update the product info with the one in the one in request body
         productFromDB.setProductName(product.getProductName());
@@ -168,11 +425,66 @@ public class ProductServiceImpl implements ProductService{
         productFromDB.setQuantity(product.getQuantity());
         productFromDB.setPrice(product.getPrice());
         productFromDB.setDiscount(product.getDiscount());
-        productFromDB.setSpecialPrice(product.getSpecialPrice());
+        // derived like on create, PATCH and repricing; a specialPrice in the request body is ignored
+        productFromDB.setSpecialPrice(specialPrice(product.getPrice(), product.getDiscount()));
+
+        return saveUpdate(productFromDB, previousDocument, previousQuantity);
+    }
+
+    @Override
+    public ProductDTO patchProduct(Long productId, ProductPatch productPatch, Long expectedVersion) {
+        Product productFromDB = findForUpdate(productId, expectedVersion);
+        String previousDocument = ProductSearchIndex.document(productFromDB);
+        Integer previousQuantity = productFromDB.getQuantity();
 
+        if (productPatch.getProductName() != null) {
+            productFromDB.setProductName(productPatch.getProductName());
+        }
+        if (productPatch.getDescription() != null) {
+            productFromDB.setDescription(productPatch.getDescription());
+        }
+        if (productPatch.getQuantity() != null) {
+            productFromDB.setQuantity(productPatch.getQuantity());
+        }
+        if (productPatch.getPrice() != null || productPatch.getDiscount() != null) {
+            if (productPatch.getPrice() != null) {
+                productFromDB.setPrice(productPatch.getPrice());
+            }
+            if (productPatch.getDiscount() != null) {
+                productFromDB.setDiscount(productPatch.getDiscount());
+            }
+            productFromDB.setSpecialPrice(specialPrice(productFromDB.getPrice(), productFromDB.getDiscount()));
+        }
+
+        // with @DynamicUpdate the UPDATE lists only the columns that actually changed
+        return saveUpdate(productFromDB, previousDocument, previousQuantity);
+    }
+
+    // the If-Match check fails fast with 412; a write that races in after it still fails the version column
+    // check on save (409)
+    private Product findForUpdate(Long productId, Long expectedVersion) {
+        Product productFromDB = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        if (expectedVersion != null && !expectedVersion.equals(productFromDB.getVersion())) {
+            throw new PreconditionFailedException("Product", "productId", productId, expectedVersion);
+        }
+        return productFromDB;
+    }
+
+    private ProductDTO saveUpdate(Product productFromDB, String previousDocument, Integer previousQuantity) {
         // save to DB
         Product updatedProduct = productRepository.save(productFromDB);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        productSearchIndex.index(updatedProduct);
+        categoryStatsIndex.index(updatedProduct);
+        stockLedger.quantityChanged(updatedProduct.getProductId(), previousQuantity, updatedProduct.getQuantity(),
+                updatedProduct.getVersion());
+        productResponseCache.invalidateProduct(updatedProduct.getCategory().getCategoryId(),
+                previousDocument, ProductSearchIndex.document(updatedProduct));
+        return productMapper.toDTO(updatedProduct);
+    }
+
+    private static double specialPrice(double price, double discount) {
+        return price - (discount * (0.01) * price);
     }
 
     @Override
@@ -180,19 +492,25 @@ public class ProductServiceImpl implements ProductService{
         Product productFromDB = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
         productRepository.deleteById(productFromDB.getProductId());
-        return modelMapper.map(productFromDB, ProductDTO.class);
+        productSearchIndex.remove(productId);
+        categoryStatsIndex.remove(productId);
+        stockLedger.forget(productId);
+        productResponseCache.invalidateProduct(productFromDB.getCategory().getCategoryId(), ProductSearchIndex.document(productFromDB));
+        return productMapper.toDTO(productFromDB);
     }
 
     @Override
-    public ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException {
+    public ProductImageResponse updateProductImage(Long productId, MultipartFile image) throws IOException {
         Product productFromDb = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
-        String fileName = fileService.uploadImage(path, image);
+        String fileName = fileService.uploadImage(image);
         productFromDb.setImage(fileName);
 
         Product updatedProduct = productRepository.save(productFromDb);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        productResponseCache.invalidateProduct(updatedProduct.getCategory().getCategoryId(), ProductSearchIndex.document(updatedProduct));
+        return new ProductImageResponse(productMapper.toDTO(updatedProduct), fileService.imageUrls(fileName),
+                fileService.isProcessing(fileName));
     }
 
 }
@@ -0,0 +1,9 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.RepricingJobDTO;
+import com.ecommerce.project.payload.RepricingRequest;
+
+public interface RepricingService {
+    RepricingJobDTO submit(RepricingRequest repricingRequest);
+    RepricingJobDTO getJob(String jobId);
+}
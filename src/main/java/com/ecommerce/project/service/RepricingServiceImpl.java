@@ -0,0 +1,194 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cache.ProductResponseCache;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.exceptions.ServiceOverloadedException;
+import com.ecommerce.project.payload.RepricingJobDTO;
+import com.ecommerce.project.payload.RepricingRequest;
+import com.ecommerce.project.pricing.DiscountType;
+import com.ecommerce.project.pricing.RepricingJob;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.ecommerce.project.stats.ProductStatsRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "ecom.service", description = "Service method latency")
+public class RepricingServiceImpl implements RepricingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RepricingServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int defaultChunkSize;
+    private final int retainedJobs;
+    private final long retryAfterSeconds;
+    // one thread: jobs run in submission order, so overlapping rules end up as the last one submitted
+    private final ThreadPoolExecutor executor;
+    private final Map<String, RepricingJob> jobs = new ConcurrentHashMap<>();
+    // submission order, to drop the oldest finished jobs beyond retainedJobs
+    private final Queue<String> jobOrder = new ConcurrentLinkedQueue<>();
+
+    public RepricingServiceImpl(@Value("${project.pricing.chunk-size}") int defaultChunkSize,
+                                @Value("${project.pricing.queue-capacity}") int queueCapacity,
+                                @Value("${project.pricing.retained-jobs}") int retainedJobs,
+                                @Value("${project.pricing.retry-after-seconds}") long retryAfterSeconds) {
+        this.defaultChunkSize = defaultChunkSize;
+        this.retainedJobs = retainedJobs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "repricing");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public RepricingJobDTO submit(RepricingRequest repricingRequest) {
+        if (repricingRequest.getDiscountType() == DiscountType.PERCENTAGE && repricingRequest.getValue() > 100) {
+            throw new APIException("A percentage discount must be between 0 and 100");
+        }
+        // checked up front so an unknown category is a 404 rather than a job that matches nothing
+        for (Long categoryId : distinct(repricingRequest.getCategoryIds())) {
+            if (!categoryRepository.existsById(categoryId)) {
+                throw new ResourceNotFoundException("Category", "categoryId", categoryId);
+            }
+        }
+        RepricingJob job = new RepricingJob(UUID.randomUUID().toString(), repricingRequest);
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new ServiceOverloadedException(retryAfterSeconds);
+        }
+        jobOrder.add(job.getJobId());
+        evictFinishedJobs();
+        return job.toDTO();
+    }
+
+    @Override
+    public RepricingJobDTO getJob(String jobId) {
+        RepricingJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Repricing job", "jobId", jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(RepricingJob job) {
+        RepricingRequest request = job.getRequest();
+        int chunkSize = request.getChunkSize() == null ? defaultChunkSize : request.getChunkSize();
+        List<Long> categoryIds = distinct(request.getCategoryIds());
+        List<Long> productIds = distinct(request.getProductIds());
+        Collections.sort(productIds);
+        try {
+            if (categoryIds.isEmpty() && productIds.isEmpty()) {
+                job.started(productRepository.count());
+                repriceRange(job, afterProductId -> productRepository.findProductIdsAfter(afterProductId, Limit.of(chunkSize)));
+            } else {
+                job.started((categoryIds.isEmpty() ? 0 : productRepository.countByCategoryIds(categoryIds)) + productIds.size());
+                if (!categoryIds.isEmpty()) {
+                    repriceRange(job, afterProductId -> productRepository.findProductIdsByCategoryIdsAfter(categoryIds,
+                            afterProductId, Limit.of(chunkSize)));
+                }
+                // a product in one of the categories as well is repriced twice, to the same result
+                for (int from = 0; from < productIds.size(); from += chunkSize) {
+                    repriceChunk(job, productIds.subList(from, Math.min(from + chunkSize, productIds.size())));
+                }
+            }
+            // one invalidation per run rather than per product, done before the job reports its outcome so that a
+            // client polling for it never reads a cached page from before the run
+            productResponseCache.invalidateAll();
+            job.completed();
+        } catch (RuntimeException e) {
+            log.warn("Repricing job {} failed", job.getJobId(), e);
+            // chunks committed before the failure are live as well
+            productResponseCache.invalidateAll();
+            job.failed(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+    }
+
+    // keyset walk in productId order: each chunk starts after the last id of the previous one
+    private void repriceRange(RepricingJob job, LongFunction<List<Long>> nextChunk) {
+        long afterProductId = 0;
+        List<Long> chunk;
+        while (!(chunk = nextChunk.apply(afterProductId)).isEmpty()) {
+            repriceChunk(job, chunk);
+            afterProductId = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    // one UPDATE and one stats read per chunk in a short transaction of its own, so product writes and stock
+    // reconciliation are held up for a chunk at a time rather than for the whole run. The bulk update bypasses
+    // the persistence context; Hibernate evicts the products cache region once per statement
+    private void repriceChunk(RepricingJob job, List<Long> productIds) {
+        RepricingRequest request = job.getRequest();
+        ChunkResult result = transactionTemplate.execute(status -> {
+            int updated = request.getDiscountType() == DiscountType.PERCENTAGE
+                    ? productRepository.applyPercentageDiscount(productIds, request.getValue())
+                    : productRepository.applyAbsoluteDiscount(productIds, request.getValue());
+            return new ChunkResult(updated, updated == 0 ? List.of() : productRepository.findStatsRows(productIds));
+        });
+        categoryStatsIndex.index(result.rows());
+        job.chunkCompleted(result.updated());
+    }
+
+    // finished jobs stay queryable until retainedJobs newer ones have been submitted
+    private void evictFinishedJobs() {
+        Iterator<String> oldest = jobOrder.iterator();
+        while (jobs.size() > retainedJobs && oldest.hasNext()) {
+            String jobId = oldest.next();
+            RepricingJob job = jobs.get(jobId);
+            if (job == null || job.isFinished()) {
+                jobs.remove(jobId);
+                oldest.remove();
+            }
+        }
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return ids == null ? new ArrayList<>() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private record ChunkResult(int updated, List<ProductStatsRow> rows) {
+    }
+}
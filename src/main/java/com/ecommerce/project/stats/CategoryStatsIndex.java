@@ -0,0 +1,186 @@
+package com.ecommerce.project.stats;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.CategoryStatsDTO;
+import com.ecommerce.project.payload.SellerStatsDTO;
+import com.ecommerce.project.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// per-category product count, specialPrice range/average and stock, and per-seller stock and inventory value,
+// kept current by the product write paths so category listings and seller stats never aggregate over products. Writers index after their commit, so a slower writer can
+// arrive with an older row than the one already counted; rows at or below the counted version are ignored
+@Component
+public class CategoryStatsIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // productId -> what was last counted for it, so updates and removals can be applied as deltas and stale
+    // rows recognised
+    private final Map<Long, ProductStatsRow> products = new HashMap<>();
+    private final Map<Long, Aggregate> categories = new HashMap<>();
+    private final Map<Long, SellerAggregate> sellers = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try (Stream<ProductStatsRow> rows = productRepository.streamStatsRows()) {
+            products.clear();
+            categories.clear();
+            sellers.clear();
+            rows.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        ProductStatsRow row = new ProductStatsRow(product.getProductId(), product.getCategory().getCategoryId(),
+                product.getUser() == null ? null : product.getUser().getUserId(), product.getSpecialPrice(),
+                product.getQuantity(), product.getVersion());
+        lock.writeLock().lock();
+        try {
+            replace(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // a bulk write (repricing chunk): all rows applied under one lock acquisition
+    public void index(Collection<ProductStatsRow> rows) {
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::replace);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            subtract(products.get(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CategoryStatsDTO get(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            Aggregate aggregate = categories.get(categoryId);
+            if (aggregate == null) {
+                return new CategoryStatsDTO(0, null, null, null, 0);
+            }
+            return new CategoryStatsDTO(aggregate.count, aggregate.prices.firstKey(), aggregate.prices.lastKey(),
+                    aggregate.priceSum / aggregate.count, aggregate.stock);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SellerStatsDTO getSeller(Long sellerId) {
+        lock.readLock().lock();
+        try {
+            SellerAggregate aggregate = sellers.get(sellerId);
+            if (aggregate == null) {
+                return new SellerStatsDTO(0L, 0L, 0.0, 0L);
+            }
+            return new SellerStatsDTO(aggregate.count, aggregate.stock, aggregate.inventoryValue, aggregate.outOfStock);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(ProductStatsRow row) {
+        ProductStatsRow counted = products.get(row.productId());
+        if (counted != null && counted.version() != null && row.version() != null
+                && row.version() <= counted.version()) {
+            return;
+        }
+        subtract(counted);
+        add(row);
+    }
+
+    private void add(ProductStatsRow row) {
+        products.put(row.productId(), row);
+        Aggregate aggregate = categories.computeIfAbsent(row.categoryId(), id -> new Aggregate());
+        aggregate.count++;
+        aggregate.priceSum += row.specialPrice();
+        aggregate.stock += stock(row);
+        aggregate.prices.merge(row.specialPrice(), 1, Integer::sum);
+        if (row.sellerId() != null) {
+            SellerAggregate seller = sellers.computeIfAbsent(row.sellerId(), id -> new SellerAggregate());
+            seller.count++;
+            seller.stock += stock(row);
+            seller.inventoryValue += stock(row) * row.specialPrice();
+            seller.outOfStock += stock(row) <= 0 ? 1 : 0;
+        }
+    }
+
+    private void subtract(ProductStatsRow row) {
+        if (row == null) {
+            return;
+        }
+        products.remove(row.productId());
+        subtractSeller(row);
+        Aggregate aggregate = categories.get(row.categoryId());
+        if (--aggregate.count == 0) {
+            // also resets the floating point sum instead of letting rounding error accumulate
+            categories.remove(row.categoryId());
+            return;
+        }
+        aggregate.priceSum -= row.specialPrice();
+        aggregate.stock -= stock(row);
+        aggregate.prices.computeIfPresent(row.specialPrice(), (price, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void subtractSeller(ProductStatsRow row) {
+        if (row.sellerId() == null) {
+            return;
+        }
+        SellerAggregate seller = sellers.get(row.sellerId());
+        if (--seller.count == 0) {
+            sellers.remove(row.sellerId());
+            return;
+        }
+        seller.stock -= stock(row);
+        seller.inventoryValue -= stock(row) * row.specialPrice();
+        seller.outOfStock -= stock(row) <= 0 ? 1 : 0;
+    }
+
+    private static long stock(ProductStatsRow row) {
+        return row.quantity() == null ? 0 : row.quantity();
+    }
+
+    private static class Aggregate {
+        private long count;
+        private double priceSum;
+        private long stock;
+        // specialPrice -> number of products at that price, for min/max that survive removals
+        private final NavigableMap<Double, Integer> prices = new TreeMap<>();
+    }
+
+    private static class SellerAggregate {
+        private long count;
+        private long stock;
+        // sum of quantity x specialPrice
+        private double inventoryValue;
+        private long outOfStock;
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.project.stats;
+
+// the columns CategoryStatsIndex keeps per product, and the row version they were read at
+public record ProductStatsRow(Long productId, Long categoryId, Long sellerId, double specialPrice, Integer quantity,
+                              Long version) {
+}
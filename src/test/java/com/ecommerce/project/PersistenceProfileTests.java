@@ -0,0 +1,109 @@
+package com.ecommerce.project;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the prod profile against its stand-in: a file-backed H2 in PostgreSQL mode
+@SpringBootTest
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersistenceProfileTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // under target/ rather than a temp directory so that H2 can finish writing the file when the context closes
+    // at JVM exit; a previous run's database is removed first
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Path.of("target", "persistence-profile");
+        FileSystemUtils.deleteRecursively(directory);
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory.toAbsolutePath().resolve("ecom")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    @Test
+    void poolIsFixedSize() {
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(20);
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(3000);
+    }
+
+    @Test
+    void writesAreBatched() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        assertThat(sessionFactory.getSessionFactoryOptions().getJdbcBatchSize()).isEqualTo(50);
+        assertThat(sessionFactory.getSessionFactoryOptions().isOrderInsertsEnabled()).isTrue();
+    }
+
+    @Test
+    void schemaHasTheLookupIndexes() {
+        assertThat(jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name in ('products', 'categories')",
+                String.class))
+                .contains("idx_products_category_price", "idx_products_name_category", "idx_categories_category_name");
+    }
+
+    @Test
+    void catalogEndpointsRunInPostgresMode() throws Exception {
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\":\"Profile phones\"}")).andExpect(status().isCreated());
+        Long categoryId = jdbcTemplate.queryForObject(
+                "select category_id from categories where category_name = 'Profile phones'", Long.class);
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/admin/categories/{categoryId}/product", categoryId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productName\":\"Phone " + i + "\",\"description\":\"A phone here\",\"quantity\":5,"
+                            + "\"price\":" + (100 * i) + ",\"discount\":10}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productName").value("Phone 1"));
+        mockMvc.perform(get("/api/public/products").param("minSpecialPrice", "100").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.facets.categories[0].count").value(2));
+        mockMvc.perform(get("/api/public/products").param("cursor", "").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+        mockMvc.perform(get("/api/public/categories").param("includeStats", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].stats.productCount").value(3));
+    }
+}
@@ -0,0 +1,202 @@
+package com.ecommerce.project.address;
+
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.AddressDTO;
+import com.ecommerce.project.repository.AddressRepository;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.service.AddressService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// a single pooled connection: a request that needed a second one while holding the first would never finish
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:address-deduplication",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+@AutoConfigureMockMvc
+class AddressDeduplicationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void usersEnteringTheSameAddressShareOneRow() throws Exception {
+        Long first = createUser("alice");
+        Long second = createUser("bob");
+
+        mockMvc.perform(post("/api/users/" + first + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                        .content(address("12 Main Street", "Rose Tower", "Bangalore", "560001")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/users/" + second + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                        .content(address("  12 main   street ", "ROSE TOWER", "bangalore", "560 001")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.street").value("12 Main Street"));
+        // entering it twice does not link it twice
+        mockMvc.perform(post("/api/users/" + second + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                        .content(address("12 Main Street", "Rose Tower", "Bangalore", "560001")))
+                .andExpect(status().isCreated());
+
+        assertThat(addressRepository.findByPincodeOrderByAddressId("560001")).hasSize(1);
+        mockMvc.perform(get("/api/users/" + second + "/addresses")).andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void concurrentEntriesOfOneAddressShareOneRow() throws Exception {
+        int users = 6;
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds.add(createUser("user" + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (Long userId : userIds) {
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return mockMvc.perform(post("/api/users/" + userId + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                                .content(address("9 Station Road", "Palm Villa", "Pune", "411001")))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> status : statuses) {
+            assertThat(status.get(30, TimeUnit.SECONDS)).isEqualTo(201);
+        }
+        executor.shutdown();
+
+        assertThat(addressRepository.findByPincodeOrderByAddressId("411001")).hasSize(1);
+    }
+
+    // 10 users entering 10 addresses each, drawn from 25 distinct ones with the casing and spacing varied
+    @Test
+    void variedEntriesAreStoredOncePerDistinctAddress() {
+        Random random = new Random(42);
+        Set<Integer> entered = new HashSet<>();
+        for (int user = 0; user < 10; user++) {
+            Long userId = createUser("footprint" + user);
+            for (int entry = 0; entry < 10; entry++) {
+                int id = random.nextInt(25);
+                entered.add(id);
+                addressService.addUserAddress(userId, new AddressDTO(null, vary(random, id + " Market Street"),
+                        vary(random, "Tower " + id), vary(random, "Nagpur"), vary(random, "Maharashtra"),
+                        vary(random, "India"), vary(random, String.valueOf(440_000 + id))));
+            }
+        }
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from addresses where pincode like '4400%'", Long.class))
+                .isEqualTo(entered.size());
+    }
+
+    @Test
+    void savingAUserDoesNotRewriteSharedAddresses() throws Exception {
+        Long first = createUser("dave");
+        Long second = createUser("erin");
+        for (Long userId : new Long[]{first, second}) {
+            mockMvc.perform(post("/api/users/" + userId + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                    .content(address("7 Beach Road", "Sea Breeze", "Goa", "403001"))).andExpect(status().isCreated());
+        }
+        User detached = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(first).orElseThrow();
+            user.getAddresses().size();
+            return user;
+        });
+
+        detached.getAddresses().get(0).setStreet("8 Beach Road");
+        userRepository.save(detached);
+
+        assertThat(addressRepository.findByPincodeOrderByAddressId("403001"))
+                .singleElement().satisfies(address -> assertThat(address.getStreet()).isEqualTo("7 Beach Road"));
+    }
+
+    @Test
+    void deliveryZonesAreLookedUpByPincodeAndCity() throws Exception {
+        Long userId = createUser("carol");
+        for (String street : new String[]{"1 Lake Road", "2 Lake Road"}) {
+            mockMvc.perform(post("/api/users/" + userId + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                    .content(address(street, "Blue Court", "Mysore", "570010"))).andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/users/" + userId + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                .content(address("3 Hill Road", "Blue Court", "Mandya", "570010"))).andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/admin/addresses").param("pincode", "570 010").param("city", "mysore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].street").value("1 Lake Road"));
+        mockMvc.perform(get("/api/admin/addresses").param("pincode", "570010"))
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void loadedAddressesShareRegionStrings() {
+        Address first = addressRepository.save(AddressCanonicalizer.canonicalize(
+                new Address("4 Park Lane", "Green House", "Chennai", "Tamil Nadu", "India", "600001")));
+        Address second = addressRepository.save(AddressCanonicalizer.canonicalize(
+                new Address("5 Park Lane", "Green House", "Chennai", "Tamil Nadu", "India", "600001")));
+
+        Address loadedFirst = addressRepository.findById(first.getAddressId()).orElseThrow();
+        Address loadedSecond = addressRepository.findById(second.getAddressId()).orElseThrow();
+
+        assertThat(loadedFirst.getCity()).isSameAs(loadedSecond.getCity());
+        assertThat(loadedFirst.getCountry()).isSameAs(loadedSecond.getCountry());
+    }
+
+    private Long createUser(String userName) {
+        return userRepository.save(new User(userName, userName + "@example.com", "secret")).getUserId();
+    }
+
+    private static String vary(Random random, String value) {
+        return switch (random.nextInt(4)) {
+            case 0 -> value.toUpperCase(Locale.ROOT);
+            case 1 -> " " + value.replace(" ", "  ") + " ";
+            case 2 -> value.toLowerCase(Locale.ROOT);
+            default -> value;
+        };
+    }
+
+    private static String address(String street, String buildingName, String city, String pincode) {
+        return "{\"street\":\"" + street + "\",\"buildingName\":\"" + buildingName + "\",\"city\":\"" + city
+                + "\",\"state\":\"Karnataka\",\"country\":\"India\",\"pincode\":\"" + pincode + "\"}";
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecommerce.project.admission;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admission-control",
+        "project.admission.rate-limit.requests-per-second=1",
+        "project.admission.rate-limit.burst=5",
+        "project.admission.rate-limit.client-header=X-Forwarded-For",
+        "project.admission.max-concurrent-requests=2"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AdmissionControlTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\":\"Phones\"}")).andExpect(status().isCreated());
+        mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productName\":\"Phone A\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void oversizedPagesAreRefused() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("pageSize", "10000").header("X-Forwarded-For", "10.0.0.1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("pageSize must not exceed 200"));
+    }
+
+    @Test
+    void oversizedPagesAreRefusedHoweverTheyAreSpelled() throws Exception {
+        for (String pageSize : new String[]{"0x2710", "#2710", "0000010000", " 10000 ", "+10000"}) {
+            mockMvc.perform(get("/api/public/products").param("pageSize", pageSize).header("X-Forwarded-For", "10.0.0.4"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("pageSize must not exceed 200"));
+        }
+        mockMvc.perform(get("/api/public/products").param("pageSize", "0x0A").header("X-Forwarded-For", "10.0.0.4"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void clientsAreLimitedPerRoute() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/public/categories").header("X-Forwarded-For", "192.168.0.1, 10.0.0.2"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/public/categories").header("X-Forwarded-For", "10.0.0.2"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        // other clients, and other routes for the same client, have their own buckets
+        mockMvc.perform(get("/api/public/categories").header("X-Forwarded-For", "10.0.0.3"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/categories/1/products").header("X-Forwarded-For", "10.0.0.2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void spoofedLeftmostAddressesShareTheProxiedClientsBucket() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/public/categories/1/products").header("X-Forwarded-For", "203.0.113." + i + ", 10.0.0.5"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/public/categories/1/products").header("X-Forwarded-For", "203.0.113.99, 10.0.0.5"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void requestsBeyondTheConcurrencyLimitAreShed() throws Exception {
+        assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        try {
+            mockMvc.perform(get("/api/public/categories").header("X-Forwarded-For", "10.0.0.4"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            concurrencyLimiter.release();
+            concurrencyLimiter.release();
+        }
+        mockMvc.perform(get("/api/public/categories").header("X-Forwarded-For", "10.0.0.4"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bucketsAdmitExactlyTheBurstUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket();
+        long now = System.nanoTime();
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int thread = 0; thread < 16; thread++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire(now, interval, interval * 100) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(admitted).hasValue(100);
+        assertThat(bucket.tryAcquire(now + interval, interval, interval * 100)).isZero();
+    }
+}
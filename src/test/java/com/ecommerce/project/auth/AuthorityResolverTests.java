@@ -0,0 +1,146 @@
+package com.ecommerce.project.auth;
+
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.Role;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:authority-resolver",
+        "project.authorization.enabled=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthorityResolverTests {
+
+    @Autowired
+    private AuthorityResolver authorityResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Role userRole;
+    private Role adminRole;
+
+    @BeforeAll
+    void roles() {
+        User seed = new User("seed", "seed@example.com", "secret");
+        seed.setRoles(Set.of(new Role(AppRole.ROLE_USER), new Role(AppRole.ROLE_ADMIN)));
+        for (Role role : userRepository.save(seed).getRoles()) {
+            if (role.getRollName() == AppRole.ROLE_ADMIN) {
+                adminRole = role;
+            } else {
+                userRole = role;
+            }
+        }
+    }
+
+    @Test
+    void cachedChecksSkipTheDatabase() {
+        Long userId = createUser("admin", adminRole, userRole);
+        assertThat(authorityResolver.roles(userId)).containsExactlyInAnyOrder(AppRole.ROLE_ADMIN, AppRole.ROLE_USER);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(authorityResolver.hasRole(userId, AppRole.ROLE_ADMIN)).isTrue();
+        assertThat(authorityResolver.hasRole(userId, AppRole.ROLE_SELLER)).isFalse();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void roleChangesEvictTheCachedMask() {
+        Long userId = createUser("promoted", userRole);
+        assertThat(authorityResolver.hasRole(userId, AppRole.ROLE_ADMIN)).isFalse();
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow().getRoles()
+                .add(entityManager.getReference(Role.class, adminRole.getRoleId())));
+        assertThat(authorityResolver.hasRole(userId, AppRole.ROLE_ADMIN)).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow().getRoles()
+                .removeIf(role -> role.getRoleId().equals(adminRole.getRoleId())));
+        assertThat(authorityResolver.hasRole(userId, AppRole.ROLE_ADMIN)).isFalse();
+    }
+
+    @Test
+    void adminRoutesNeedAnAdmin() throws Exception {
+        Long adminId = createUser("root", adminRole);
+        Long customerId = createUser("customer", userRole);
+        String category = "{\"categoryName\":\"Phones\"}";
+
+        mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON).content(category))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON).content(category)
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, customerId))
+                .andExpect(status().isForbidden());
+        // past the role check; the category does not exist
+        mockMvc.perform(post("/api/admin/categories/999/product").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Phone A\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}")
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, adminId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void userRoutesAreOpenToTheUserAndToAdmins() throws Exception {
+        Long ownerId = createUser("owner", userRole);
+        Long otherId = createUser("other", userRole);
+        Long adminId = createUser("support", adminRole);
+
+        mockMvc.perform(get("/api/users/" + ownerId + "/addresses"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/" + ownerId + "/addresses")
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, otherId))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/" + ownerId + "/addresses").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"street\":\"1 Lake Road\",\"buildingName\":\"Blue Court\",\"city\":\"Mysore\","
+                                + "\"state\":\"Karnataka\",\"country\":\"India\",\"pincode\":\"570010\"}")
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, otherId))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/" + ownerId + "/addresses")
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + ownerId + "/addresses")
+                        .header(AdminAuthorizationInterceptor.USER_ID_HEADER, adminId))
+                .andExpect(status().isOk());
+    }
+
+    private Long createUser(String userName, Role... roles) {
+        User user = new User(userName, userName + "@example.com", "secret");
+        user.setRoles(new HashSet<>(Set.of(roles)));
+        // merge, since the roles are detached
+        return transactionTemplate.execute(status -> entityManager.merge(user).getUserId());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.project.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedResponseCacheTests {
+
+    private static final ProductCacheKey PHONES = ProductCacheKey.category(1L, 0, 10, "productId", "asc");
+    private static final ProductCacheKey BOOKS = ProductCacheKey.category(2L, 0, 10, "productId", "asc");
+
+    private final SerializedResponseCache cache = new SerializedResponseCache(new ObjectMapper(),
+            new SimpleMeterRegistry(), 1, 1_000_000, 300, 1024);
+
+    @AfterEach
+    void shutdown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void invalidatingOneKeyKeepsAConcurrentLoadOfAnother() throws Exception {
+        AtomicInteger booksLoads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Supplier<Object> books = () -> {
+            if (booksLoads.incrementAndGet() == 1) {
+                loading.countDown();
+                await(invalidated);
+            }
+            return List.of("Book");
+        };
+
+        CompletableFuture<?> load = CompletableFuture.runAsync(() -> respond(BOOKS, books));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate(PHONES::equals);
+        invalidated.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        respond(BOOKS, books);
+        assertThat(booksLoads).hasValue(1);
+    }
+
+    @Test
+    void aLoadAcrossAnInvalidationOfItsKeyIsNotKept() throws Exception {
+        AtomicInteger phonesLoads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Supplier<Object> phones = () -> {
+            if (phonesLoads.incrementAndGet() == 1) {
+                loading.countDown();
+                await(invalidated);
+            }
+            return List.of("Phone");
+        };
+
+        CompletableFuture<?> load = CompletableFuture.runAsync(() -> respond(PHONES, phones));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate(PHONES::equals);
+        invalidated.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        respond(PHONES, phones);
+        assertThat(phonesLoads).hasValue(2);
+    }
+
+    private void respond(ProductCacheKey key, Supplier<Object> loader) {
+        cache.respond(key, 0, loader, new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
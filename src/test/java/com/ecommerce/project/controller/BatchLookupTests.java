@@ -0,0 +1,103 @@
+package com.ecommerce.project.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-lookup",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchLookupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void seed() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String categoryName : new String[]{"Phones", "Laptops"}) {
+            mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"categoryName\":\"" + categoryName + "\"}")).andExpect(status().isCreated());
+        }
+        for (String productName : new String[]{"Phone A", "Phone B", "Phone C"}) {
+            mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productName\":\"" + productName + "\",\"description\":\"A phone here\","
+                            + "\"quantity\":5,\"price\":100,\"discount\":10}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void productsComeBackInRequestOrderWithMissingIdsInline() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/public/products/batch").param("productIds", "3,999,1,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productName").value("Phone C"))
+                .andExpect(jsonPath("$.content[1]").value(nullValue()))
+                .andExpect(jsonPath("$.content[2].productName").value("Phone A"))
+                .andExpect(jsonPath("$.content[3].productId").value(3))
+                .andExpect(jsonPath("$.missingIds", contains(999)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedProductsSkipTheDatabase() throws Exception {
+        mockMvc.perform(get("/api/public/products/batch").param("productIds", "1", "2")).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/public/products/batch").param("productIds", "2", "1"))
+                .andExpect(jsonPath("$.content[0].productName").value("Phone B"))
+                .andExpect(jsonPath("$.content[1].productName").value("Phone A"));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void categoriesComeBackInRequestOrder() throws Exception {
+        mockMvc.perform(get("/api/public/categories/batch").param("categoryIds", "2,7,1").param("includeStats", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categoryName").value("Laptops"))
+                .andExpect(jsonPath("$.content[1]").value(nullValue()))
+                .andExpect(jsonPath("$.content[2].categoryName").value("Phones"))
+                .andExpect(jsonPath("$.content[2].stats.productCount").value(3))
+                .andExpect(jsonPath("$.missingIds", contains(7)));
+    }
+
+    @Test
+    void oversizedRequestsAreRefused() throws Exception {
+        String ids = LongStream.rangeClosed(1, 301).mapToObj(Long::toString).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/public/products/batch").param("productIds", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 300 ids can be requested at once"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.project.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cached-listing",
+        "project.cache.responses.gzip-min-bytes=0"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CachedListingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\":\"Phones\"}")).andExpect(status().isCreated());
+        mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productName\":\"Phone A\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void unchangedPagesAreNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/public/categories")).andExpect(status().isOk()).andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        mockMvc.perform(get("/api/public/categories"))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        MvcResult notModified = mockMvc.perform(get("/api/public/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void gzipIsServedWhenAccepted() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/public/products")).andExpect(status().isOk()).andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/api/public/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        assertThat(gunzip(gzipped.getResponse().getContentAsByteArray()))
+                .isEqualTo(plain.getResponse().getContentAsString());
+        assertThat(gzipped.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(plain.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void refusedGzipIsServedPlain() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/public/products")).andExpect(status().isOk()).andReturn();
+
+        for (String refused : List.of("gzip;q=0", "*;q=0", "identity", "*, gzip;q=0.0")) {
+            MvcResult identity = mockMvc.perform(get("/api/public/products").header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andReturn();
+            assertThat(identity.getResponse().getContentAsString()).isEqualTo(plain.getResponse().getContentAsString());
+            assertThat(identity.getResponse().getHeader(HttpHeaders.ETAG))
+                    .isEqualTo(plain.getResponse().getHeader(HttpHeaders.ETAG));
+        }
+    }
+
+    @Test
+    void writesChangeTheCachedBody() throws Exception {
+        String eTag = mockMvc.perform(get("/api/public/categories/1/products")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/admin/products/1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productName\":\"Phone B\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                .andExpect(status().isOk());
+
+        MvcResult changed = mockMvc.perform(get("/api/public/categories/1/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(changed.getResponse().getContentAsString()).contains("Phone B");
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
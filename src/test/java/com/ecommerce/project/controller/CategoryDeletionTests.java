@@ -0,0 +1,95 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.service.CategoryService;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:category-deletion",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class CategoryDeletionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    @MockitoSpyBean
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void deleteRemovesTheProductsEverywhere() throws Exception {
+        long categoryId = categoryWithProducts("Garden", "Rake");
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/admin/categories/{categoryId}", categoryId)).andExpect(status().isOk());
+
+        assertThat(productRepository.findProductIdsByCategoryId(categoryId)).isEmpty();
+        assertThat(productSearchIndex.search("rake")).isEmpty();
+        assertThat(categoryStatsIndex.get(categoryId).getProductCount()).isZero();
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void failedDeleteKeepsTheProducts() throws Exception {
+        long categoryId = categoryWithProducts("Kitchen", "Ladle");
+        doThrow(new IllegalStateException("category delete failed")).when(categoryRepository).delete(any());
+        try {
+            assertThatThrownBy(() -> categoryService.deleteCategory(categoryId)).isInstanceOf(IllegalStateException.class);
+        } finally {
+            reset(categoryRepository);
+        }
+
+        assertThat(productRepository.findProductIdsByCategoryId(categoryId)).hasSize(2);
+        assertThat(productSearchIndex.search("ladle")).hasSize(2);
+        assertThat(categoryStatsIndex.get(categoryId).getProductCount()).isEqualTo(2);
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId)).andExpect(status().isOk());
+    }
+
+    private long categoryWithProducts(String categoryName, String productName) throws Exception {
+        String created = mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryName\":\"" + categoryName + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long categoryId = ((Number) JsonPath.read(created, "$.categoryId")).longValue();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/admin/categories/{categoryId}/product", categoryId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productName\":\"" + productName + " " + i + "\",\"description\":\"A " + productName
+                                    + " for sale\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                    .andExpect(status().isCreated());
+        }
+        return categoryId;
+    }
+}
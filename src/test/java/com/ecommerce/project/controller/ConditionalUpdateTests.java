@@ -0,0 +1,173 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-updates",
+        "project.admission.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecommerce.project.controller.ConditionalUpdateTests$RecordingInspector"
+})
+@AutoConfigureMockMvc
+class ConditionalUpdateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        category = categoryRepository.save(new Category(null, "Phones " + System.nanoTime(), new ArrayList<>(), null));
+        productId = productRepository.save(new Product(null, "Phone", "A phone here", "default.png", 5, 100, 10, 90,
+                category, null, null)).getProductId();
+    }
+
+    @Test
+    void singleProductIsTaggedWithItsVersion() throws Exception {
+        mockMvc.perform(get("/api/public/products/{productId}", productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/api/public/products/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void staleIfMatchIsRefused() throws Exception {
+        mockMvc.perform(patch("/api/admin/products/{productId}", productId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/api/admin/products/{productId}", productId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Phone\",\"description\":\"A phone here\",\"quantity\":1,\"price\":100,\"discount\":10,\"specialPrice\":90}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/admin/products/{productId}", productId).header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":1}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void patchWritesOnlyTheChangedColumns() throws Exception {
+        RecordingInspector.STATEMENTS.clear();
+        mockMvc.perform(patch("/api/admin/products/{productId}", productId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(3))
+                .andExpect(jsonPath("$.productName").value("Phone"));
+        assertThat(updates()).singleElement().satisfies(sql -> assertThat(setClause(sql)).isEqualTo("quantity=?,version=?"));
+
+        RecordingInspector.STATEMENTS.clear();
+        mockMvc.perform(patch("/api/admin/products/{productId}", productId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"price\":200}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specialPrice").value(180.0));
+        assertThat(updates()).singleElement()
+                .satisfies(sql -> assertThat(setClause(sql)).isEqualTo("price=?,special_price=?,version=?"));
+    }
+
+    @Test
+    void concurrentConditionalWritesLetExactlyOneThrough() throws Exception {
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            int quantity = 100 + i;
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return mockMvc.perform(patch("/api/admin/products/{productId}", productId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":" + quantity + "}"))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> status : statuses) {
+            results.add(status.get());
+        }
+        executor.shutdown();
+
+        // losers see 412 when the winner committed before their read, 409 when it committed between read and write
+        assertThat(results).filteredOn(status -> status == 200).hasSize(1);
+        assertThat(results).filteredOn(status -> status != 200).allMatch(status -> status == 412 || status == 409);
+        assertThat(productRepository.findById(productId).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void categoryRenamesAreConditional() throws Exception {
+        Long categoryId = category.getCategoryId();
+        mockMvc.perform(get("/api/public/categories/{categoryId}", categoryId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/api/public/categories/{categoryId}", categoryId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"Renamed " + categoryId + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/api/public/categories/{categoryId}", categoryId).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"Stale " + categoryId + "\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        Category renamed = categoryRepository.findById(categoryId).orElseThrow();
+        assertThat(renamed.getCategoryName()).isEqualTo("Renamed " + categoryId);
+        assertThat(productRepository.findById(productId).orElseThrow().getCategory().getCategoryId()).isEqualTo(categoryId);
+    }
+
+    private static List<String> updates() {
+        return RecordingInspector.STATEMENTS.stream().filter(sql -> sql.startsWith("update products")).toList();
+    }
+
+    private static String setClause(String sql) {
+        return sql.substring(sql.indexOf(" set ") + 5, sql.indexOf(" where ")).replace(" ", "");
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.project.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cursor-paging",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CursorPagingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // prices repeat, so pages have to break ties on productId to neither skip nor repeat a row
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\":\"Phones\"}")).andExpect(status().isCreated());
+        for (int i = 0; i < 7; i++) {
+            mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productName\":\"Phone " + i + "\",\"description\":\"A phone here\",\"quantity\":5,\"price\":"
+                                    + (100 + i % 3) + ",\"discount\":0}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void pagesFollowEachOtherWithoutGapsOrRepeats() throws Exception {
+        List<Integer> productIds = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            String body = mockMvc.perform(get("/api/public/products").param("cursor", cursor).param("pageSize", "2")
+                            .param("sortBy", "price").param("sortOrder", "desc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            productIds.addAll(JsonPath.read(body, "$.content[*].productId"));
+            cursor = JsonPath.read(body, "$.nextCursor");
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(productIds).containsExactly(6, 3, 5, 2, 7, 4, 1);
+    }
+
+    @Test
+    void cursorForAnotherSortIsABadRequest() throws Exception {
+        String body = mockMvc.perform(get("/api/public/products").param("cursor", "").param("pageSize", "2")
+                        .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/public/products").param("cursor", cursor).param("sortBy", "productName"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/public/categories/1/products").param("cursor", "Zm9v").param("sortBy", "price"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/public/categories").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+}
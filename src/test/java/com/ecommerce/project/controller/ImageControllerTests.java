@@ -0,0 +1,131 @@
+package com.ecommerce.project.controller;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:image-controller")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ImageControllerTests {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String ORIGINAL = HASH + ".png";
+    private static final String THUMBNAIL = HASH + "-thumb.png";
+
+    private static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final byte[] bytes = new byte[1000];
+
+    @DynamicPropertySource
+    static void imageDirectory(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("images");
+        registry.add("project.image", () -> directory.toString());
+    }
+
+    @BeforeAll
+    void writeFiles() throws IOException {
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        Files.write(directory.resolve(ORIGINAL), bytes);
+        Files.write(directory.resolve(THUMBNAIL), bytes);
+        Files.write(directory.resolve("legacy.png"), bytes);
+        Files.write(directory.resolve("legacy.bmp"), bytes);
+        Files.writeString(directory.resolve("legacy.svg"), "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>");
+        Files.writeString(directory.resolve("legacy.html"), "<script>alert(1)</script>");
+        Files.write(directory.resolve(HASH + ".svg"), bytes);
+    }
+
+    @AfterAll
+    void deleteFiles() {
+        FileSystemUtils.deleteRecursively(directory.toFile());
+    }
+
+    @Test
+    void servesContentAddressedFileWithStrongETag() throws Exception {
+        mockMvc.perform(get("/api/public/images/{fileName}", ORIGINAL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(content().bytes(bytes));
+    }
+
+    @Test
+    void answersMatchingETagWithNotModified() throws Exception {
+        mockMvc.perform(get("/api/public/images/{fileName}", THUMBNAIL)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "-thumb\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        for (String fileName : new String[]{ORIGINAL, THUMBNAIL}) {
+            mockMvc.perform(get("/api/public/images/{fileName}", fileName).header(HttpHeaders.RANGE, "bytes=100-199"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                    .andExpect(content().bytes(Arrays.copyOfRange(bytes, 100, 200)));
+        }
+        mockMvc.perform(get("/api/public/images/{fileName}", ORIGINAL).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(bytes, 990, 1000)));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/public/images/{fileName}", ORIGINAL).header(HttpHeaders.RANGE, "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+    }
+
+    @Test
+    void hashesFilesThatAreNotContentAddressed() throws Exception {
+        String eTag = mockMvc.perform(get("/api/public/images/{fileName}", "legacy.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/public/images/{fileName}", "legacy.png").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void unknownOrUnsafeNamesAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/public/images/{fileName}", "missing.png")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/public/images/{fileName}", "..%2Fsecret.png")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void onlyAllowlistedImageTypesAreServed() throws Exception {
+        mockMvc.perform(get("/api/public/images/{fileName}", "legacy.bmp"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/bmp"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+        for (String fileName : new String[]{"legacy.svg", "legacy.html", HASH + ".svg"}) {
+            mockMvc.perform(get("/api/public/images/{fileName}", fileName)).andExpect(status().isNotFound());
+        }
+    }
+}
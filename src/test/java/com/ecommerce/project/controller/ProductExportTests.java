@@ -0,0 +1,123 @@
+package com.ecommerce.project.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-export",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // two categories with interleaved product ids, so the category filter and the resume point are both visible
+    @BeforeAll
+    void seed() throws Exception {
+        for (String categoryName : List.of("Phones", "Laptops")) {
+            mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"categoryName\":\"" + categoryName + "\"}")).andExpect(status().isCreated());
+        }
+        for (int i = 0; i < 6; i++) {
+            long categoryId = i % 2 + 1;
+            mockMvc.perform(post("/api/admin/categories/" + categoryId + "/product").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productName\":\"Product " + i + "\",\"description\":\"Product number " + i
+                            + "\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void exportIsOneProductPerLineInIdOrder() throws Exception {
+        MvcResult result = export(get("/api/public/products/export"));
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        assertThat(productIds(result.getResponse().getContentAsString())).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void afterProductIdResumesTheExport() throws Exception {
+        MvcResult all = export(get("/api/public/products/export").param("afterProductId", "4"));
+        MvcResult category = export(get("/api/public/products/export")
+                .param("categoryId", "1").param("afterProductId", "1"));
+
+        assertThat(productIds(all.getResponse().getContentAsString())).containsExactly(5L, 6L);
+        assertThat(productIds(category.getResponse().getContentAsString())).containsExactly(3L, 5L);
+    }
+
+    @Test
+    void gzipIsNegotiatedFromAcceptEncoding() throws Exception {
+        String plain = export(get("/api/public/products/export")).getResponse().getContentAsString();
+
+        MvcResult gzipped = export(get("/api/public/products/export").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5"));
+        assertThat(gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(gzipped.getResponse().getContentAsByteArray())).isEqualTo(plain);
+
+        for (String refused : List.of("gzip;q=0", "*;q=0", "identity", "*, gzip;q=0.000")) {
+            MvcResult identity = export(get("/api/public/products/export").header(HttpHeaders.ACCEPT_ENCODING, refused));
+            assertThat(identity.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).as(refused).isNull();
+            assertThat(identity.getResponse().getContentAsString()).as(refused).isEqualTo(plain);
+        }
+    }
+
+    @Test
+    void unknownCategoryIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/public/products/export").param("categoryId", "99"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        return result;
+    }
+
+    private List<Long> productIds(String ndjson) throws IOException {
+        List<Long> productIds = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            JsonNode product = objectMapper.readTree(line);
+            productIds.add(product.get("productId").asLong());
+        }
+        return productIds;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
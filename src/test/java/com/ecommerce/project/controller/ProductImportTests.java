@@ -0,0 +1,195 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-import",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ProductImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void csvRowsAreParsedAndImported() throws Exception {
+        long categoryId = category("Csv import");
+        String csv = """
+                price,productName,categoryId,description,quantity
+                10.5,"Mug, large",%1$d,"A ""big"" mug for tea",3
+                20,Teapot,%1$d,A teapot for tea,
+                """.formatted(categoryId);
+
+        importFile("products.csv", csv, null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsReceived").value(2))
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(0));
+
+        assertThat(productRepository.findExistingProductNames(categoryId, List.of("Mug, large", "Teapot")))
+                .containsExactlyInAnyOrder("Mug, large", "Teapot");
+        assertThat(productSearchIndex.search("teapot")).hasSize(1);
+    }
+
+    @Test
+    void ndjsonRowsAreParsedAndImported() throws Exception {
+        long categoryId = category("Ndjson import");
+        String ndjson = """
+                {"categoryId":%1$d,"productName":"Kettle","description":"A kettle for tea","quantity":2,"price":30}
+
+                {"categoryId":%1$d,"productName":"Strainer","description":"A strainer for tea","price":5,"discount":10}
+                """.formatted(categoryId);
+
+        importFile("products.ndjson", ndjson, null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsReceived").value(2))
+                .andExpect(jsonPath("$.rowsImported").value(2));
+
+        assertThat(productRepository.findExistingProductNames(categoryId, List.of("Kettle", "Strainer"))).hasSize(2);
+    }
+
+    // each rejected row is reported once, by line number, in line order
+    @Test
+    void invalidRowsAreReportedByLine() throws Exception {
+        long categoryId = category("Invalid rows");
+        String csv = """
+                categoryId,productName,description,price
+                %1$d,Spoon,A spoon for soup,2
+                %1$d,"Fork,A fork for salad,2
+                %1$d,Knife,A knife for bread,-1
+                999,Ladle,A ladle for soup,4
+                %1$d,Spoon,Another spoon for soup,2
+                %1$d,Bowl,A bowl for soup,abc
+                """.formatted(categoryId);
+
+        importFile("products.csv", csv, null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsReceived").value(6))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(5))
+                .andExpect(jsonPath("$.errors[*].row").value(contains(3, 4, 5, 6, 7)))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("Malformed row")))
+                .andExpect(jsonPath("$.errors[1].message").value(startsWith("price:")))
+                .andExpect(jsonPath("$.errors[2].message").value("Category not found with categoryId: 999"))
+                .andExpect(jsonPath("$.errors[3].message").value("Duplicate product in file: Spoon"))
+                .andExpect(jsonPath("$.errors[4].message").value(startsWith("Malformed row")));
+    }
+
+    @Test
+    void productsAlreadyInTheDatabaseAreRejected() throws Exception {
+        long categoryId = category("Existing rows");
+        String first = """
+                {"categoryId":%1$d,"productName":"Plate","description":"A plate for dinner","price":8}
+                """.formatted(categoryId);
+        String second = """
+                {"categoryId":%1$d,"productName":"Plate","description":"A plate for dinner","price":8}
+                {"categoryId":%1$d,"productName":"Saucer","description":"A saucer for a cup","price":4}
+                """.formatted(categoryId);
+
+        importFile("products.ndjson", first, null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(1));
+        importFile("products.ndjson", second, null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Product already exists: Plate"));
+    }
+
+    // a chunk is one transaction with JDBC-batched inserts, so the statements prepared grow with chunks, not rows
+    @Test
+    void rowsAreInsertedInBatchedChunks() throws Exception {
+        long categoryId = category("Batched rows");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            ndjson.append("{\"categoryId\":").append(categoryId).append(",\"productName\":\"Glass ").append(i)
+                    .append("\",\"description\":\"A glass for water\",\"price\":3}\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        importFile("products.ndjson", ndjson.toString(), 20)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(40));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+
+    // the over-long description only fails at insert time; the rest of its chunk is still imported
+    @Test
+    void aRowTheDatabaseRefusesRejectsOnlyThatRow() throws Exception {
+        long categoryId = category("Refused rows");
+        String ndjson = """
+                {"categoryId":%1$d,"productName":"Fork","description":"A fork for salad","price":2}
+                {"categoryId":%1$d,"productName":"Knife","description":"%2$s","price":2}
+                {"categoryId":%1$d,"productName":"Spoon","description":"A spoon for soup","price":2}
+                """.formatted(categoryId, "a".repeat(300));
+
+        importFile("products.ndjson", ndjson, 10)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("Insert failed")));
+
+        assertThat(productRepository.findExistingProductNames(categoryId, List.of("Fork", "Knife", "Spoon")))
+                .containsExactlyInAnyOrder("Fork", "Spoon");
+    }
+
+    @Test
+    void unsupportedFilesAreBadRequests() throws Exception {
+        importFile("products.xml", "<products/>", null).andExpect(status().isBadRequest());
+        importFile("products.csv", "productName,price\nMug,2\n", null).andExpect(status().isBadRequest());
+        importFile("products.csv", "categoryId,productName,description,price\n", 0).andExpect(status().isBadRequest());
+    }
+
+    private ResultActions importFile(String fileName, String content, Integer batchSize) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, null, content.getBytes(StandardCharsets.UTF_8));
+        return mockMvc.perform(batchSize == null
+                ? multipart("/api/admin/products/import").file(file)
+                : multipart("/api/admin/products/import").file(file).param("batchSize", batchSize.toString()));
+    }
+
+    private long category(String categoryName) throws Exception {
+        String created = mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryName\":\"" + categoryName + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(created, "$.categoryId")).longValue();
+    }
+}
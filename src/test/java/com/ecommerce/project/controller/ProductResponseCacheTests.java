@@ -0,0 +1,98 @@
+package com.ecommerce.project.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// serialized pages are off, so every listing request goes through the product response cache
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-response-cache",
+        "project.admission.enabled=false",
+        "project.cache.responses.cached-pages=0"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductResponseCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() throws Exception {
+        for (String categoryName : new String[]{"Phones", "Laptops"}) {
+            mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"categoryName\":\"" + categoryName + "\"}")).andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Phone A\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/admin/categories/2/product").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Laptop A\",\"description\":\"A laptop here\",\"quantity\":5,\"price\":900,\"discount\":10}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void secondReadIsAHit() throws Exception {
+        RequestBuilder page = get("/api/public/products").param("pageSize", "7");
+        long[] before = stats();
+
+        mockMvc.perform(page).andExpect(status().isOk());
+        mockMvc.perform(page).andExpect(status().isOk());
+
+        long[] after = stats();
+        assertThat(after[0] - before[0]).as("hits").isEqualTo(1);
+        assertThat(after[1] - before[1]).as("misses").isEqualTo(1);
+    }
+
+    // a phone write drops the full listing, the phone category and the keywords matching the phone; the laptop
+    // category and laptop keyword pages stay cached
+    @Test
+    void productWriteEvictsOnlyTheAffectedScopes() throws Exception {
+        RequestBuilder all = get("/api/public/products").param("pageSize", "8");
+        RequestBuilder phones = get("/api/public/categories/1/products").param("pageSize", "8");
+        RequestBuilder laptops = get("/api/public/categories/2/products").param("pageSize", "8");
+        RequestBuilder phoneKeyword = get("/api/public/products/keyword/{keyword}", "phone").param("pageSize", "8");
+        RequestBuilder laptopKeyword = get("/api/public/products/keyword/{keyword}", "laptop").param("pageSize", "8");
+        RequestBuilder[] pages = {all, phones, laptops, phoneKeyword, laptopKeyword};
+        for (RequestBuilder page : pages) {
+            mockMvc.perform(page);
+        }
+
+        mockMvc.perform(put("/api/admin/products/1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Phone B\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                .andExpect(status().isOk());
+
+        assertThat(hitAfter(all)).as("all products").isFalse();
+        assertThat(hitAfter(phones)).as("phone category").isFalse();
+        assertThat(hitAfter(phoneKeyword)).as("phone keyword").isFalse();
+        assertThat(hitAfter(laptops)).as("laptop category").isTrue();
+        assertThat(hitAfter(laptopKeyword)).as("laptop keyword").isTrue();
+    }
+
+    private boolean hitAfter(RequestBuilder page) throws Exception {
+        long hits = stats()[0];
+        mockMvc.perform(page);
+        return stats()[0] > hits;
+    }
+
+    private long[] stats() throws Exception {
+        String body = mockMvc.perform(get("/api/admin/products/cache/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new long[]{((Number) JsonPath.read(body, "$.hitCount")).longValue(),
+                ((Number) JsonPath.read(body, "$.missCount")).longValue()};
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repricing",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class RepricingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    private Category phones;
+    private Category books;
+    private final List<Long> phoneIds = new ArrayList<>();
+    private Long bookId;
+
+    @BeforeEach
+    void seed() {
+        phones = categoryRepository.save(new Category(null, "Phones " + System.nanoTime(), new ArrayList<>(), null));
+        books = categoryRepository.save(new Category(null, "Books " + System.nanoTime(), new ArrayList<>(), null));
+        phoneIds.clear();
+        for (int i = 1; i <= 7; i++) {
+            Product product = productRepository.save(new Product(null, "Phone " + i, "A phone here", "default.png", 1,
+                    100 * i, 0, 100 * i, phones, null, null));
+            categoryStatsIndex.index(product);
+            phoneIds.add(product.getProductId());
+        }
+        Product book = productRepository.save(new Product(null, "Book", "A book here", "default.png", 1, 20, 0, 20,
+                books, null, null));
+        categoryStatsIndex.index(book);
+        bookId = book.getProductId();
+    }
+
+    @Test
+    void percentageRuleRepricesACategoryInChunks() throws Exception {
+        String jobId = submit("{\"discountType\":\"PERCENTAGE\",\"value\":25,\"categoryIds\":[" + phones.getCategoryId()
+                + "],\"chunkSize\":3}");
+
+        awaitFinished(jobId);
+        mockMvc.perform(get("/api/admin/products/repricing/{jobId}", jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.productsMatched").value(7))
+                .andExpect(jsonPath("$.productsUpdated").value(7))
+                .andExpect(jsonPath("$.chunksCompleted").value(3));
+
+        for (int i = 0; i < phoneIds.size(); i++) {
+            Product product = productRepository.findById(phoneIds.get(i)).orElseThrow();
+            assertThat(product.getDiscount()).isEqualTo(25.0);
+            assertThat(product.getSpecialPrice()).isCloseTo(75.0 * (i + 1), within(1e-9));
+            assertThat(product.getVersion()).isEqualTo(1L);
+        }
+        assertThat(productRepository.findById(bookId).orElseThrow().getSpecialPrice()).isEqualTo(20.0);
+        assertThat(categoryStatsIndex.get(phones.getCategoryId()).getMaxSpecialPrice()).isCloseTo(525.0, within(1e-9));
+    }
+
+    @Test
+    void absoluteRuleIsStoredAsAPercentageAndFloorsAtZero() throws Exception {
+        String jobId = submit("{\"discountType\":\"ABSOLUTE\",\"value\":50,\"productIds\":[" + phoneIds.get(1) + ","
+                + bookId + "," + bookId + ",999999]}");
+
+        awaitFinished(jobId);
+        mockMvc.perform(get("/api/admin/products/repricing/{jobId}", jobId))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.productsUpdated").value(2));
+
+        Product phone = productRepository.findById(phoneIds.get(1)).orElseThrow();
+        assertThat(phone.getSpecialPrice()).isCloseTo(150.0, within(1e-9));
+        assertThat(phone.getDiscount()).isCloseTo(25.0, within(1e-9));
+        Product book = productRepository.findById(bookId).orElseThrow();
+        assertThat(book.getSpecialPrice()).isEqualTo(0.0);
+        assertThat(book.getDiscount()).isEqualTo(100.0);
+        assertThat(productRepository.findById(phoneIds.get(0)).orElseThrow().getSpecialPrice()).isEqualTo(100.0);
+    }
+
+    @Test
+    void repricedProductsAreServedFreshFromTheListings() throws Exception {
+        String path = "/api/public/categories/" + books.getCategoryId() + "/products";
+        mockMvc.perform(get(path)).andExpect(jsonPath("$.content[0].specialPrice").value(20.0));
+
+        awaitFinished(submit("{\"discountType\":\"PERCENTAGE\",\"value\":10,\"productIds\":[" + bookId + "]}"));
+
+        mockMvc.perform(get(path)).andExpect(jsonPath("$.content[0].specialPrice").value(18.0));
+        mockMvc.perform(get("/api/public/products/{productId}", bookId))
+                .andExpect(jsonPath("$.specialPrice").value(18.0));
+    }
+
+    @Test
+    void invalidRulesAreRefused() throws Exception {
+        mockMvc.perform(post("/api/admin/products/repricing").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"discountType\":\"PERCENTAGE\",\"value\":120}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/admin/products/repricing").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"discountType\":\"ABSOLUTE\",\"value\":-5}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/admin/products/repricing").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"discountType\":\"PERCENTAGE\",\"value\":10,\"categoryIds\":[999999]}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/admin/products/repricing/{jobId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String submit(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/admin/products/repricing")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.jobId");
+    }
+
+    private void awaitFinished(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String status;
+        do {
+            Thread.sleep(20);
+            String response = mockMvc.perform(get("/api/admin/products/repricing/{jobId}", jobId))
+                    .andReturn().getResponse().getContentAsString();
+            status = JsonPath.read(response, "$.status");
+        } while (!status.equals("COMPLETED") && !status.equals("FAILED") && System.currentTimeMillis() < deadline);
+        assertThat(status).isEqualTo("COMPLETED");
+    }
+}
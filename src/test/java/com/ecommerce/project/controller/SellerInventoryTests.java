@@ -0,0 +1,165 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seller-inventory",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SellerInventoryTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    private Long sellerId;
+    private Long otherSellerId;
+    private Long emptySellerId;
+    private final List<Long> sellerProductIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User seller = userRepository.save(new User("seller", "seller@example.com", "secret"));
+        User otherSeller = userRepository.save(new User("other", "other@example.com", "secret"));
+        sellerId = seller.getUserId();
+        otherSellerId = otherSeller.getUserId();
+        emptySellerId = userRepository.save(new User("empty", "empty@example.com", "secret")).getUserId();
+        Category category = categoryRepository.save(new Category(null, "Phones", new ArrayList<>(), null));
+        for (int i = 1; i <= 5; i++) {
+            // quantities 0, 2, 4, 6, 8 at a specialPrice of 10
+            Product product = productRepository.save(new Product(null, "Phone " + i, "A phone here", "default.png",
+                    (i - 1) * 2, 10, 0, 10, category, seller, null));
+            sellerProductIds.add(product.getProductId());
+        }
+        productRepository.save(new Product(null, "Other phone", "A phone here", "default.png", 7, 50, 0, 50,
+                category, otherSeller, null));
+        // seeded around the product service, as a restart would find them
+        categoryStatsIndex.rebuild();
+    }
+
+    @Test
+    void inventoryIsPagedInProductIdOrder() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/public/sellers/" + sellerId + "/products").param("pageSize", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].productId", contains(sellerProductIds.subList(0, 3).stream()
+                        .map(Long::intValue).toArray())))
+                .andExpect(jsonPath("$.content[0].categoryId").isNumber())
+                .andExpect(jsonPath("$.lastPage").value(false))
+                .andExpect(jsonPath("$.nextAfterProductId").value(sellerProductIds.get(2)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/public/sellers/" + sellerId + "/products")
+                        .param("pageSize", "3").param("afterProductId", sellerProductIds.get(2).toString()))
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.lastPage").value(true))
+                .andExpect(jsonPath("$.nextAfterProductId").value(nullValue()));
+    }
+
+    @Test
+    void statsAggregateStockAndValue() throws Exception {
+        mockMvc.perform(get("/api/public/sellers/" + sellerId + "/products/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productCount").value(5))
+                .andExpect(jsonPath("$.totalStock").value(20))
+                .andExpect(jsonPath("$.inventoryValue").value(200.0))
+                .andExpect(jsonPath("$.outOfStockCount").value(1));
+        mockMvc.perform(get("/api/public/sellers/" + otherSellerId + "/products/stats"))
+                .andExpect(jsonPath("$.productCount").value(1));
+    }
+
+    @Test
+    void statsFollowProductWrites() throws Exception {
+        User writer = userRepository.save(new User("writer", "writer@example.com", "secret"));
+        Long productId = productRepository.save(new Product(null, "Spare phone", "A phone here", "default.png", 3,
+                10, 0, 10, categoryRepository.findAll().get(0), writer, null)).getProductId();
+        categoryStatsIndex.rebuild();
+        mockMvc.perform(get("/api/public/sellers/" + writer.getUserId() + "/products/stats"))
+                .andExpect(jsonPath("$.totalStock").value(3))
+                .andExpect(jsonPath("$.inventoryValue").value(30.0));
+
+        mockMvc.perform(patch("/api/admin/products/{productId}", productId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\":0}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/sellers/" + writer.getUserId() + "/products/stats"))
+                .andExpect(jsonPath("$.productCount").value(1))
+                .andExpect(jsonPath("$.totalStock").value(0))
+                .andExpect(jsonPath("$.outOfStockCount").value(1));
+
+        mockMvc.perform(delete("/api/admin/products/{productId}", productId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/sellers/" + writer.getUserId() + "/products/stats"))
+                .andExpect(jsonPath("$.productCount").value(0));
+    }
+
+    @Test
+    void sellersWithoutProductsAreNotMissingSellers() throws Exception {
+        mockMvc.perform(get("/api/public/sellers/" + emptySellerId + "/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+        mockMvc.perform(get("/api/public/sellers/" + emptySellerId + "/products/stats"))
+                .andExpect(jsonPath("$.productCount").value(0))
+                .andExpect(jsonPath("$.inventoryValue").value(0.0));
+        mockMvc.perform(get("/api/public/sellers/999/products")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void sellerQueriesUseTheSellerIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select product_id from products where seller_id = " + sellerId
+                        + " and product_id > 0 order by seller_id, product_id fetch first 10 rows only",
+                String.class);
+        assertThat(plan).containsIgnoringCase("idx_products_seller_product").contains("index sorted");
+    }
+}
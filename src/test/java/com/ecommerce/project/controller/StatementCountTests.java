@@ -0,0 +1,165 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// pins the number of JDBC statements per read endpoint so N+1 selects fail the build; the second-level cache
+// is off so the counts do not depend on test order
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "project.cache.products.maximum-size=0",
+        "project.cache.responses.cached-pages=0"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryStatsIndex categoryStatsIndex;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    // products spread over several categories and sellers, so eager associations would show up as extra selects
+    @BeforeAll
+    void seed() {
+        List<Long> categoryIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Role role = new Role(AppRole.ROLE_SELLER);
+            entityManager.persist(role);
+            List<Category> categories = new ArrayList<>();
+            List<User> sellers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Category category = new Category(null, "Category " + i, new ArrayList<>(), null);
+                entityManager.persist(category);
+                categories.add(category);
+                User seller = new User("seller" + i, "seller" + i + "@example.com", "password");
+                seller.setRoles(Set.of(role));
+                entityManager.persist(seller);
+                sellers.add(seller);
+            }
+            for (int i = 0; i < 40; i++) {
+                entityManager.persist(new Product(null, "Product " + i, "Description " + i, "default.png", i,
+                        100 + i, 10, 90 + i, categories.get(i % 4), sellers.get(i % 4), null));
+            }
+            categories.forEach(category -> categoryIds.add(category.getCategoryId()));
+        });
+        categoryId = categoryIds.get(0);
+        productSearchIndex.rebuild();
+        categoryStatsIndex.rebuild();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void productPageIsOneSelectPlusCount() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("pageSize", "10")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void categoryProductPageLoadsCategoryThenPage() throws Exception {
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId).param("pageSize", "5"))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void keywordSearchLoadsOnlyTheMatchedPage() throws Exception {
+        mockMvc.perform(get("/api/public/products/keyword/{keyword}", "product").param("pageSize", "10"))
+                .andExpect(status().isFound());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cursorPagesSkipTheCountQuery() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("cursor", "").param("pageSize", "10"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/categories/{categoryId}/products", categoryId).param("cursor", "").param("pageSize", "5"))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void categoryPageIsOneSelect() throws Exception {
+        mockMvc.perform(get("/api/public/categories")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // specialPrice = 90 + i; product i is in category i % 4
+    @Test
+    void filteredPageWithFacetsIsPagePlusCountPlusOneFacetScan() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("categoryId", categoryId.toString())
+                        .param("minSpecialPrice", "100").param("facets", "true").param("pageSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(7))
+                .andExpect(jsonPath("$.facets.categories.length()").value(4))
+                .andExpect(jsonPath("$.facets.categories[0].count").value(7))
+                .andExpect(jsonPath("$.facets.categories[2].count").value(8))
+                .andExpect(jsonPath("$.facets.specialPrice[2].to").value(100.0))
+                .andExpect(jsonPath("$.facets.specialPrice[2].count").value(3))
+                .andExpect(jsonPath("$.facets.specialPrice[3].count").value(7));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void categoryStatsComeFromTheIndex() throws Exception {
+        mockMvc.perform(get("/api/public/categories").param("includeStats", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].stats.productCount").value(10));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void exportIsOneStreamingSelect() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/public/products/export")).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
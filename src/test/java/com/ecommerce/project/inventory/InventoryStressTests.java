@@ -0,0 +1,164 @@
+package com.ecommerce.project.inventory;
+
+import com.ecommerce.project.exceptions.InsufficientStockException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.payload.ReservationRequest;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.InventoryServiceImpl;
+import com.ecommerce.project.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// many threads reserving, confirming and releasing the same few products while reconcile() writes back
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-stress",
+        "project.inventory.reconcile-interval-ms=20",
+        "project.inventory.expiry-interval-ms=3600000"
+})
+class InventoryStressTests {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryStressTests.class);
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final int INITIAL_QUANTITY = 15_000;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    // demand (~2 units x 60% confirmed per operation) outruns the stock partway through the run
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        List<Long> productIds = seed(4, INITIAL_QUANTITY);
+        AtomicLongArray confirmed = new AtomicLongArray(productIds.size());
+        AtomicLong rejected = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int index = random.nextInt(productIds.size());
+                    int quantity = 1 + random.nextInt(3);
+                    ReservationDTO reservation;
+                    try {
+                        reservation = inventoryService.reserve(productIds.get(index), new ReservationRequest(quantity, null));
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                        continue;
+                    }
+                    if (random.nextInt(10) < 6) {
+                        inventoryService.confirm(reservation.getReservationId());
+                        confirmed.addAndGet(index, quantity);
+                    } else {
+                        inventoryService.release(reservation.getReservationId());
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        executor.shutdown();
+        stockLedger.reconcile();
+
+        log.info("{} reservation operations on {} threads in {} ms ({} ops/s), {} rejected",
+                THREADS * OPERATIONS_PER_THREAD, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                (long) (THREADS * OPERATIONS_PER_THREAD / (elapsedNanos / 1e9)), rejected.get());
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            int quantity = productRepository.findById(productId).orElseThrow().getQuantity();
+            assertThat(quantity).isGreaterThanOrEqualTo(0);
+            assertThat(quantity).isEqualTo(INITIAL_QUANTITY - confirmed.get(i));
+            assertThat(stockLedger.available(productId)).isEqualTo(quantity);
+            assertThat(stockLedger.reserved(productId)).isZero();
+        }
+        assertThat(rejected.get()).isPositive();
+    }
+
+    @Test
+    void expiredReservationsReturnTheirUnits() throws Exception {
+        Long productId = seed(1, 5).get(0);
+        ReservationDTO reservation = inventoryService.reserve(productId, new ReservationRequest(5, 1L));
+        assertThat(stockLedger.available(productId)).isZero();
+
+        Thread.sleep(1_100);
+        inventoryService.releaseExpired();
+
+        assertThat(stockLedger.available(productId)).isEqualTo(5);
+        assertThatThrownBy(() -> inventoryService.confirm(reservation.getReservationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void restockingMovesTheAvailableUnits() {
+        Long productId = seed(1, 10).get(0);
+        inventoryService.confirm(inventoryService.reserve(productId, new ReservationRequest(4, null)).getReservationId());
+        inventoryService.reserve(productId, new ReservationRequest(1, null));
+        stockLedger.reconcile();
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantity()).isEqualTo(6);
+
+        ProductDTO productDTO = productMapper.toDTO(productRepository.findById(productId).orElseThrow());
+        productDTO.setQuantity(26);
+        productService.updateProduct(productId, productDTO, null);
+
+        // 26 on the shelf, 1 still held
+        assertThat(stockLedger.available(productId)).isEqualTo(25);
+        assertThat(stockLedger.reserved(productId)).isEqualTo(1);
+    }
+
+    private List<Long> seed(int products, int quantity) {
+        Category category = categoryRepository.save(new Category(null, "Stress " + System.nanoTime(), new ArrayList<>(), null));
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            Product product = productRepository.save(new Product(null, "Product " + i, "Description " + i, "default.png",
+                    quantity, 100, 0, 100, category, null, null));
+            productIds.add(product.getProductId());
+        }
+        return productIds;
+    }
+}
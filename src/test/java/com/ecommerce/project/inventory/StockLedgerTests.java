@@ -0,0 +1,152 @@
+package com.ecommerce.project.inventory;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.stats.CategoryStatsIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// counters are evicted as soon as they are idle, so every reconcile() pass races the reservations
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-ledger",
+        "project.inventory.reconcile-interval-ms=3600000",
+        "project.inventory.expiry-interval-ms=3600000",
+        "project.inventory.idle-eviction-ms=0"
+})
+class StockLedgerTests {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @MockitoSpyBean
+    private CategoryStatsIndex categoryStatsIndex;
+
+    // an evicted counter is reloaded from products.quantity, so a change made behind the ledger's back shows up
+    @Test
+    void idleCountersAreEvicted() {
+        Long productId = seed(10);
+        assertThat(stockLedger.reserve(productId, 3)).isTrue();
+        stockLedger.release(productId, 3);
+        stockLedger.reconcile();
+
+        setQuantity(productId, 4);
+
+        assertThat(stockLedger.available(productId)).isEqualTo(4);
+    }
+
+    @Test
+    void countersWithReservationsAreKept() {
+        Long productId = seed(10);
+        assertThat(stockLedger.reserve(productId, 3)).isTrue();
+        stockLedger.reconcile();
+
+        setQuantity(productId, 4);
+
+        assertThat(stockLedger.available(productId)).isEqualTo(7);
+        assertThat(stockLedger.reserved(productId)).isEqualTo(3);
+    }
+
+    // the quantity is committed before the stats index fails, so the units must not be handed back and written again
+    @Test
+    void failureAfterTheWriteDoesNotDeductTwice() {
+        Long productId = seed(10);
+        assertThat(stockLedger.reserve(productId, 3)).isTrue();
+        stockLedger.confirm(productId, 3);
+        doThrow(new IllegalStateException("stats index failed")).when(categoryStatsIndex).index(any(Product.class));
+        try {
+            stockLedger.reconcile();
+            stockLedger.reconcile();
+        } finally {
+            reset(categoryStatsIndex);
+        }
+
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantity()).isEqualTo(7);
+        assertThat(stockLedger.available(productId)).isEqualTo(7);
+    }
+
+    @Test
+    void evictionRacingReservationsNeverLosesUnits() throws Exception {
+        Long productId = seed(5_000);
+        AtomicLong confirmed = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2_000; i++) {
+                    int quantity = 1 + random.nextInt(2);
+                    if (!stockLedger.reserve(productId, quantity)) {
+                        continue;
+                    }
+                    if (random.nextBoolean()) {
+                        stockLedger.confirm(productId, quantity);
+                        confirmed.addAndGet(quantity);
+                    } else {
+                        stockLedger.release(productId, quantity);
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> reconciler = executor.submit(() -> {
+            while (running.get()) {
+                stockLedger.reconcile();
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        running.set(false);
+        reconciler.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        stockLedger.reconcile();
+
+        int quantity = productRepository.findById(productId).orElseThrow().getQuantity();
+        assertThat(quantity).isEqualTo(5_000 - confirmed.get());
+        assertThat(stockLedger.available(productId)).isEqualTo(quantity);
+        assertThat(stockLedger.reserved(productId)).isZero();
+    }
+
+    private Long seed(int quantity) {
+        Category category = categoryRepository.save(new Category(null, "Ledger " + System.nanoTime(), new ArrayList<>(), null));
+        return productRepository.save(new Product(null, "Product", "Description", "default.png",
+                quantity, 100, 0, 100, category, null, null)).getProductId();
+    }
+
+    private void setQuantity(Long productId, int quantity) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setQuantity(quantity);
+        productRepository.save(product);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the hand-written mappers must produce exactly what the reflective ModelMapper used to
+class DtoMapperEquivalenceTests {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    @Test
+    void productToDTOMatchesModelMapper() {
+        for (Product product : products()) {
+            assertThat(productMapper.toDTO(product))
+                    .isEqualTo(modelMapper.map(product, ProductDTO.class));
+        }
+    }
+
+    @Test
+    void productDTOToEntityMatchesModelMapper() {
+        for (Product product : products()) {
+            ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+            assertThat(productMapper.toEntity(productDTO))
+                    .isEqualTo(modelMapper.map(productDTO, Product.class));
+        }
+    }
+
+    @Test
+    void categoryToDTOMatchesModelMapper() {
+        for (Category category : categories()) {
+            assertThat(categoryMapper.toDTO(category))
+                    .isEqualTo(modelMapper.map(category, CategoryDTO.class));
+        }
+    }
+
+    @Test
+    void categoryDTOToEntityMatchesModelMapper() {
+        for (Category category : categories()) {
+            CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+            assertThat(categoryMapper.toEntity(categoryDTO))
+                    .isEqualTo(modelMapper.map(categoryDTO, Category.class));
+        }
+    }
+
+    private static List<Category> categories() {
+        return List.of(
+                new Category(1L, "Electronics", new ArrayList<>(), null),
+                new Category(2L, null, null, null),
+                new Category(null, "Books and Media", null, null));
+    }
+
+    private static List<Product> products() {
+        Category category = new Category(7L, "Electronics", new ArrayList<>(), null);
+        User seller = new User("seller", "seller@example.com", "secret");
+        seller.setUserId(3L);
+        return List.of(
+                new Product(1L, "iPhone 15", "Apple smartphone", "default.png", 10, 1000.0, 10.0, 900.0, category, seller, null),
+                new Product(2L, "Kindle", "E-book reader", null, null, 120.5, 0.0, 120.5, null, null, null),
+                new Product(null, null, null, null, 0, 0.0, 0.0, 0.0, category, null, null));
+    }
+}
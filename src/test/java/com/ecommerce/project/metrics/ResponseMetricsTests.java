@@ -0,0 +1,129 @@
+package com.ecommerce.project.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:response-metrics",
+        "project.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResponseMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\":\"Phones\"}")).andExpect(status().isCreated());
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/admin/categories/1/product").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productName\":\"Phone " + i + "\",\"description\":\"A phone here\",\"quantity\":5,\"price\":100,\"discount\":10}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    // cursor pages are written by the JSON converter rather than served from the serialized response cache
+    @Test
+    void syncResponseRecordsBytesRowsAndSerialization() throws Exception {
+        DistributionSummary bytes = bytes("GET", "/api/public/products");
+        DistributionSummary rows = rows("/api/public/products");
+        Timer serialization = meterRegistry.timer("ecom.http.serialization", "type", "ProductCursorResponse");
+        long bytesCount = bytes.count();
+        double bytesTotal = bytes.totalAmount();
+        long rowsCount = rows.count();
+        long serializationCount = serialization.count();
+
+        MvcResult result = mockMvc.perform(get("/api/public/products").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(bytes.count()).isEqualTo(bytesCount + 1);
+        assertThat(bytes.totalAmount() - bytesTotal).isEqualTo(result.getResponse().getContentAsByteArray().length);
+        assertThat(rows.count()).isEqualTo(rowsCount + 1);
+        assertThat(rows.max()).isEqualTo(3);
+        assertThat(serialization.count()).isEqualTo(serializationCount + 1);
+    }
+
+    @Test
+    void asyncResponseIsRecordedWhenItCompletes() throws Exception {
+        DistributionSummary bytes = bytes("GET", "/api/public/products/export");
+        DistributionSummary rows = rows("/api/public/products/export");
+        long bytesCount = bytes.count();
+        double bytesTotal = bytes.totalAmount();
+        long rowsCount = rows.count();
+
+        MvcResult result = mockMvc.perform(get("/api/public/products/export")).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(bytes.count()).isEqualTo(bytesCount + 1);
+        assertThat(bytes.totalAmount() - bytesTotal).isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(rows.count()).isEqualTo(rowsCount + 1);
+        assertThat(rows.max()).isEqualTo(3);
+    }
+
+    // the bytes written before the timeout are recorded, and the completion that follows does not record again
+    @Test
+    void timedOutAsyncResponseIsRecordedOnce() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/export");
+        request.setAsyncSupported(true);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/public/products/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ResponseBytesFilter(registry).doFilter(request, response, (servletRequest, servletResponse) -> {
+            servletRequest.startAsync();
+            servletResponse.getOutputStream().write(new byte[100]);
+        });
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        DistributionSummary bytes = registry.get("ecom.http.response.bytes").summary();
+        assertThat(bytes.count()).isEqualTo(1);
+        assertThat(bytes.totalAmount()).isEqualTo(100);
+
+        asyncContext.complete();
+        assertThat(bytes.count()).isEqualTo(1);
+    }
+
+    private DistributionSummary bytes(String method, String uri) {
+        return DistributionSummary.builder("ecom.http.response.bytes").tag("method", method).tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary rows(String uri) {
+        return DistributionSummary.builder("ecom.http.response.rows").tag("uri", uri).register(meterRegistry);
+    }
+}
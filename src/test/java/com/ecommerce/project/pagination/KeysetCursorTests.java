@@ -0,0 +1,107 @@
+package com.ecommerce.project.pagination;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTests {
+
+    private static final Sort PRICE_ASC = Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "productId"));
+
+    @Test
+    void roundTripsTheLastRowKeys() {
+        String cursor = KeysetCursor.encode("price", "asc", ScrollPosition.forward(keys("price", 99.5, "productId", 42L)));
+
+        ScrollPosition position = KeysetCursor.decode(cursor, PRICE_ASC, Product.class);
+
+        assertThat(((KeysetScrollPosition) position).getKeys()).containsExactly(
+                Map.entry("price", 99.5), Map.entry("productId", 42L));
+    }
+
+    @Test
+    void emptyCursorStartsFromTheFirstRow() {
+        assertThat(KeysetCursor.decode("", PRICE_ASC, Product.class)).isEqualTo(ScrollPosition.keyset());
+    }
+
+    @Test
+    void cursorForAnotherSortIsRejected() {
+        String cursor = KeysetCursor.encode("price", "asc", ScrollPosition.forward(keys("price", 99.5, "productId", 42L)));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor,
+                Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "productId")), Product.class))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor,
+                Sort.by(Sort.Direction.ASC, "discount").and(Sort.by(Sort.Direction.ASC, "productId")), Product.class))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void garbageIsRejected() throws IOException {
+        String valid = KeysetCursor.encode("price", "asc", ScrollPosition.forward(keys("price", 99.5, "productId", 42L)));
+
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", PRICE_ASC, Product.class)).isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(valid.substring(0, valid.length() - 4), PRICE_ASC, Product.class))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(valid + "AAAA", PRICE_ASC, Product.class)).isInstanceOf(APIException.class);
+        // well-formed, but with keys the sort does not use or values of the wrong type
+        assertThatThrownBy(() -> KeysetCursor.decode(forged("productName", "Phone", "productId", 42L), PRICE_ASC, Product.class))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(forged("price", "cheap", "productId", 42L), PRICE_ASC, Product.class))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(forged("price", 99.5, "productId", 42), PRICE_ASC, Product.class))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(forged("price", 99.5, "price", 98.5), PRICE_ASC, Product.class))
+                .isInstanceOf(APIException.class);
+    }
+
+    private static Map<String, Object> keys(String firstName, Object firstValue, String secondName, Object secondValue) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(firstName, firstValue);
+        keys.put(secondName, secondValue);
+        return keys;
+    }
+
+    // written field by field, since encode only accepts what the repositories hand back
+    private static String forged(String firstName, Object firstValue, String secondName, Object secondValue) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeUTF("price");
+            out.writeBoolean(true);
+            out.writeByte(2);
+            writeKey(out, firstName, firstValue);
+            writeKey(out, secondName, secondValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static void writeKey(DataOutputStream out, String name, Object value) throws IOException {
+        out.writeUTF(name);
+        if (value instanceof Long l) {
+            out.writeByte('J');
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte('I');
+            out.writeInt(i);
+        } else if (value instanceof Double d) {
+            out.writeByte('D');
+            out.writeDouble(d);
+        } else {
+            out.writeByte('S');
+            out.writeUTF((String) value);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// more products than fit in one chunk, with repeated prices and null quantities, so the merge across chunks,
+// the productId tie-break and the null ordering all show up
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-sort",
+        "project.cache.products.maximum-size=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSortRepositoryTests {
+
+    private static final int PRODUCTS = ProductSortRepositoryImpl.CHUNK_SIZE * 2 + 500;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Category category = categoryRepository.save(new Category(null, "Widgets", new ArrayList<>(), null));
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            double price = (i * 7919) % 500;
+            batch.add(new Product(null, "Widget " + i, "A widget for sorting", "default.png",
+                    i % 10 == 0 ? null : i % 37, price, 0, price, category, null, null));
+        }
+        products.addAll(productRepository.saveAll(batch));
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void idsAreSortedAcrossChunks() {
+        List<Long> productIds = shuffledIds();
+        Comparator<Product> byPrice = Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getProductId);
+
+        assertThat(productRepository.sortProductIds(productIds, Sort.Order.asc("price"), PRODUCTS))
+                .containsExactlyElementsOf(expected(byPrice, PRODUCTS));
+        assertThat(productRepository.sortProductIds(productIds, Sort.Order.desc("price"), 30))
+                .containsExactlyElementsOf(expected(byPrice.reversed(), 30));
+    }
+
+    @Test
+    void nullsSortLastAscendingAndFirstDescending() {
+        List<Long> productIds = shuffledIds();
+        Comparator<Product> byQuantity = Comparator.comparing(Product::getQuantity, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+                .thenComparing(Product::getProductId);
+
+        assertThat(productRepository.sortProductIds(productIds, Sort.Order.asc("quantity"), PRODUCTS))
+                .containsExactlyElementsOf(expected(byQuantity, PRODUCTS));
+        assertThat(productRepository.sortProductIds(productIds, Sort.Order.desc("quantity"), 100))
+                .containsExactlyElementsOf(expected(byQuantity.reversed(), 100));
+    }
+
+    @Test
+    void keywordSearchPagesBySortKey() {
+        Comparator<Product> byPrice = Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getProductId);
+
+        List<Long> page = productService.searchProductByKeyword("widget", 7, 50, "price", "desc").getContent().stream()
+                .map(ProductDTO::getProductId)
+                .toList();
+
+        assertThat(page).containsExactlyElementsOf(expected(byPrice.reversed(), 400).subList(350, 400));
+    }
+
+    private List<Long> shuffledIds() {
+        List<Long> productIds = new ArrayList<>(products.stream().map(Product::getProductId).toList());
+        Collections.shuffle(productIds, new Random(42));
+        return productIds;
+    }
+
+    private List<Long> expected(Comparator<Product> comparator, int limit) {
+        return products.stream().sorted(comparator).limit(limit).map(Product::getProductId).toList();
+    }
+}
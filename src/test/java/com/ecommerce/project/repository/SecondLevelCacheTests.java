@@ -0,0 +1,85 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void categoryLookupsSkipTheDatabase() {
+        Category category = categoryRepository.save(new Category(null, "Cached " + System.nanoTime(), new ArrayList<>(), null));
+        categoryRepository.findById(category.getCategoryId());
+        statistics.clear();
+
+        assertThat(categoryRepository.findById(category.getCategoryId())).isPresent();
+        assertThat(categoryRepository.findById(category.getCategoryId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getCacheRegionStatistics("categories").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void finderQueriesAreCached() {
+        Category category = categoryRepository.save(new Category(null, "Query " + System.nanoTime(), new ArrayList<>(), null));
+        categoryRepository.findByCategoryName(category.getCategoryName());
+        statistics.clear();
+
+        assertThat(categoryRepository.findByCategoryName(category.getCategoryName()).getCategoryId())
+                .isEqualTo(category.getCategoryId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedQueryResultsFollowWrites() {
+        Category category = categoryRepository.save(new Category(null, "Writes " + System.nanoTime(), new ArrayList<>(), null));
+        assertThat(productRepository.existsByCategoryAndProductName(category, "Phone")).isFalse();
+
+        productRepository.save(new Product(null, "Phone", "A phone here", "default.png", 5, 100, 0, 100,
+                category, null, null));
+
+        assertThat(productRepository.existsByCategoryAndProductName(category, "Phone")).isTrue();
+    }
+
+    @Test
+    void regionsAreSizedFromTheConfigFile() {
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> products = hibernateCacheManager.getCache("products")
+                .getConfiguration(CaffeineConfiguration.class);
+        assertThat(products.getMaximumSize()).hasValue(50_000L);
+    }
+}
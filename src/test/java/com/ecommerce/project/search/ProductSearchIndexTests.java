@@ -0,0 +1,75 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.model.Product;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTests {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void matchesTokensAndPrefixesCaseInsensitively() {
+        index.index(product(1L, "Apple iPhone 15", "Smartphone with USB-C"));
+        index.index(product(2L, "Pixel Phone", "Google smartphone"));
+        index.index(product(3L, "Phone Case", "Leather case for phones"));
+
+        assertThat(index.search("PHONE")).containsExactly(3L, 2L);
+        assertThat(index.search("smart")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("usb-c apple")).containsExactly(1L);
+        assertThat(index.search("tablet")).isEmpty();
+        assertThat(index.search("  ")).isEmpty();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        index.index(product(1L, "Leather Wallet", "Made from cowhide"));
+        index.index(product(2L, "Card Holder", "Slim leather card holder"));
+
+        assertThat(index.search("leather")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reindexingAndRemovalUpdateThePostings() {
+        index.index(product(1L, "Coffee Mug", "Ceramic mug"));
+        index.index(product(1L, "Tea Cup", "Porcelain cup"));
+
+        assertThat(index.search("coffee")).isEmpty();
+        assertThat(index.search("tea")).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("tea")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void documentsOlderThanTheIndexedVersionAreIgnored() {
+        Product renamed = product(1L, "Tea Cup", "Porcelain cup");
+        renamed.setVersion(6L);
+        Product stale = product(1L, "Coffee Mug", "Ceramic mug");
+        stale.setVersion(5L);
+
+        index.index(renamed);
+        index.index(stale);
+
+        assertThat(index.search("coffee")).isEmpty();
+        assertThat(index.search("tea")).containsExactly(1L);
+    }
+
+    @Test
+    void matchesAgreesWithSearch() {
+        String document = ProductSearchIndex.document(product(1L, "Running Shoes", "Lightweight trainers"));
+
+        assertThat(ProductSearchIndex.matches("run train", document)).isTrue();
+        assertThat(ProductSearchIndex.matches("shoe boots", document)).isFalse();
+    }
+
+    private static Product product(Long productId, String productName, String description) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setProductName(productName);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.image.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileServiceImplTests {
+
+    @TempDir
+    Path directory;
+
+    private FileServiceImpl fileService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileService = new FileServiceImpl(directory.toString(), "/images/", 1, 10);
+        fileService.createDirectories();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileService.shutdown();
+    }
+
+    @Test
+    void storesOriginalUnderContentHashAndGeneratesVariants() throws Exception {
+        byte[] png = png(1600, 1200);
+        String fileName = fileService.uploadImage(new MockMultipartFile("image", "photo.PNG", "image/png", png));
+
+        assertThat(fileName).matches("[0-9a-f]{64}\\.png");
+        assertThat(Files.readAllBytes(directory.resolve(fileName))).isEqualTo(png);
+        assertThat(fileService.imageUrls(fileName)).containsKeys("original", "medium", "thumb")
+                .containsEntry("thumb", "/images/" + ImageVariant.THUMBNAIL.fileName(fileName));
+
+        awaitProcessing(fileName);
+        BufferedImage medium = ImageIO.read(directory.resolve(ImageVariant.MEDIUM.fileName(fileName)).toFile());
+        BufferedImage thumbnail = ImageIO.read(directory.resolve(ImageVariant.THUMBNAIL.fileName(fileName)).toFile());
+        assertThat(medium.getWidth()).isEqualTo(800);
+        assertThat(medium.getHeight()).isEqualTo(600);
+        assertThat(thumbnail.getWidth()).isEqualTo(200);
+        assertThat(thumbnail.getHeight()).isEqualTo(150);
+    }
+
+    @Test
+    void identicalUploadsShareOneFile() throws Exception {
+        byte[] png = png(300, 300);
+        String first = fileService.uploadImage(new MockMultipartFile("image", "a.png", "image/png", png));
+        String second = fileService.uploadImage(new MockMultipartFile("image", "b.png", "image/png", png));
+        awaitProcessing(first);
+
+        assertThat(second).isEqualTo(first);
+        try (var files = Files.list(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1 + ImageVariant.values().length);
+        }
+    }
+
+    @Test
+    void rejectsUnsupportedExtensions() {
+        assertThatThrownBy(() -> fileService.uploadImage(
+                new MockMultipartFile("image", "notes.txt", "text/plain", new byte[]{1, 2, 3})))
+                .isInstanceOf(APIException.class);
+    }
+
+    private void awaitProcessing(String fileName) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (fileService.isProcessing(fileName) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(fileService.isProcessing(fileName)).isFalse();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x += 10) {
+            image.setRGB(x, height / 2, 0xff0000);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
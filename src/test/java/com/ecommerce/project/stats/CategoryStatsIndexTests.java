@@ -0,0 +1,108 @@
+package com.ecommerce.project.stats;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.payload.CategoryStatsDTO;
+import com.ecommerce.project.payload.SellerStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryStatsIndexTests {
+
+    private final CategoryStatsIndex index = new CategoryStatsIndex();
+    private final Category phones = new Category(1L, "Phones", new ArrayList<>(), null);
+    private final Category books = new Category(2L, "Books", new ArrayList<>(), null);
+
+    @Test
+    void aggregatesPerCategory() {
+        index.index(product(1L, phones, 500, 3));
+        index.index(product(2L, phones, 200, 7));
+        index.index(product(3L, phones, 800, null));
+        index.index(product(4L, books, 20, 100));
+
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(3, 200.0, 800.0, 500.0, 10));
+        assertThat(index.get(2L)).isEqualTo(new CategoryStatsDTO(1, 20.0, 20.0, 20.0, 100));
+    }
+
+    @Test
+    void updatesReplaceThePreviousValues() {
+        index.index(product(1L, phones, 500, 3));
+        index.index(product(2L, phones, 200, 7));
+        index.index(product(2L, phones, 900, 1));
+
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(2, 500.0, 900.0, 700.0, 4));
+    }
+
+    @Test
+    void rowsOlderThanTheCountedVersionAreIgnored() {
+        index.index(product(1L, phones, 500, 3, 6L));
+        // a writer that committed v5 first but indexes after v6
+        index.index(product(1L, phones, 200, 9, 5L));
+        index.index(List.of(new ProductStatsRow(1L, 1L, null, 100, 1, 6L)));
+
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(1, 500.0, 500.0, 500.0, 3));
+
+        index.index(List.of(new ProductStatsRow(1L, 1L, null, 100, 1, 7L)));
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(1, 100.0, 100.0, 100.0, 1));
+    }
+
+    @Test
+    void aggregatesPerSeller() {
+        User seller = new User("seller", "seller@example.com", "secret");
+        seller.setUserId(7L);
+        index.index(sellerProduct(1L, phones, 10, 4, seller));
+        index.index(sellerProduct(2L, books, 20, 0, seller));
+        index.index(sellerProduct(3L, books, 30, null, seller));
+        index.index(sellerProduct(4L, books, 50, 9, null));
+
+        assertThat(index.getSeller(7L)).isEqualTo(new SellerStatsDTO(3L, 4L, 40.0, 2L));
+
+        index.index(sellerProduct(1L, phones, 10, 1, seller));
+        index.remove(3L);
+        assertThat(index.getSeller(7L)).isEqualTo(new SellerStatsDTO(2L, 1L, 10.0, 1L));
+        assertThat(index.getSeller(8L)).isEqualTo(new SellerStatsDTO(0L, 0L, 0.0, 0L));
+    }
+
+    @Test
+    void removingTheCheapestProductMovesTheMinimum() {
+        index.index(product(1L, phones, 500, 3));
+        index.index(product(2L, phones, 200, 7));
+        index.index(product(3L, phones, 200, 1));
+
+        index.remove(2L);
+        assertThat(index.get(1L).getMinSpecialPrice()).isEqualTo(200.0);
+        index.remove(3L);
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(1, 500.0, 500.0, 500.0, 3));
+    }
+
+    @Test
+    void emptyCategoriesHaveNoPriceRange() {
+        index.index(product(1L, phones, 500, 3));
+        index.remove(1L);
+        index.remove(1L);
+
+        assertThat(index.get(1L)).isEqualTo(new CategoryStatsDTO(0, null, null, null, 0));
+        assertThat(index.get(99L)).isEqualTo(new CategoryStatsDTO(0, null, null, null, 0));
+    }
+
+    private static Product product(Long productId, Category category, double specialPrice, Integer quantity) {
+        return product(productId, category, specialPrice, quantity, null);
+    }
+
+    private static Product sellerProduct(Long productId, Category category, double specialPrice, Integer quantity,
+                                         User seller) {
+        return new Product(productId, "Product " + productId, "Description", "default.png", quantity,
+                specialPrice, 0, specialPrice, category, seller, null);
+    }
+
+    private static Product product(Long productId, Category category, double specialPrice, Integer quantity,
+                                   Long version) {
+        return new Product(productId, "Product " + productId, "Description", "default.png", quantity,
+                specialPrice, 0, specialPrice, category, null, version);
+    }
+}